@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+#
+# Time to first request of a service, started as the plain jar and as the
+# AOT + CDS build produced by the aot Maven profile.
+#
+# Build the service first:
+#   (cd product && ./mvnw -Paot package -DskipTests)
+#
+# Usage: bench/startup-benchmark.sh <product|user> [runs] [-- application args]
+# Application args (for example the datasource URL) are passed to every run.
+# PORT (default 18080) and PROBE_PATH (default /actuator/health) can be
+# overridden; JAVA_HOME selects the JVM, which must be the one the CDS
+# archive was built with. Any HTTP response to the probe counts as the first request.
+
+set -euo pipefail
+
+MODULE="${1:?usage: $0 <product|user> [runs] [-- application args]}"
+RUNS="${2:-5}"
+shift $(( $# < 2 ? $# : 2 ))
+[ "${1:-}" = "--" ] && shift
+APP_ARGS=("$@")
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+PORT="${PORT:-18080}"
+PROBE_PATH="${PROBE_PATH:-/actuator/health}"
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/$MODULE/target"
+CDS_DIR="$TARGET/cds"
+LOG="$TARGET/startup-benchmark.log"
+
+if [ ! -f "$CDS_DIR/application.jsa" ]; then
+    echo "No CDS archive in $CDS_DIR; build with: (cd $MODULE && ./mvnw -Paot package -DskipTests)" >&2
+    exit 1
+fi
+JAR_NAME="$(basename "$(ls "$CDS_DIR"/*.jar | head -n 1)")"
+
+# Start the service, wait for its first HTTP response, stop it and print the elapsed milliseconds
+measure() {
+    local start end pid
+    start=$(date +%s%N)
+    "$JAVA" "$@" --server.port="$PORT" "${APP_ARGS[@]}" > "$LOG" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null "http://localhost:$PORT$PROBE_PATH"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Service exited before serving a request, see $LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+report() {
+    local name="$1"
+    shift
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        times+=("$(measure "$@")")
+    done
+    local median
+    median=$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+    printf '%-10s median %6d ms   runs: %s\n' "$name" "$median" "${times[*]}"
+}
+
+echo "== $MODULE: time to first request over $RUNS runs"
+report "plain" -jar "$TARGET/$JAR_NAME"
+report "aot+cds" -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Xlog:cds=off -Dspring.aot.enabled=true \
+    -jar "$CDS_DIR/$JAR_NAME"
@@ -0,0 +1,20 @@
+-- wrk script: POST /api/products with a SKU unique per thread and request,
+-- so every request is an insert. RUN_ID keeps SKUs apart between runs.
+
+local counter = 0
+local threads = {}
+local run_id = os.getenv("RUN_ID") or tostring(os.time())
+
+-- thread_id becomes a global in each thread's own Lua state
+function setup(thread)
+    thread:set("thread_id", #threads)
+    table.insert(threads, thread)
+end
+
+function request()
+    counter = counter + 1
+    local body = string.format(
+        '{"sku":"BENCH-%s-%d-%d","name":"Benchmark product %d","description":"Pool benchmark",' ..
+        '"price":1999,"currency":"USD","stock":100}', run_id, thread_id, counter, counter)
+    return wrk.format("POST", "/api/products", {["Content-Type"] = "application/json"}, body)
+end
@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+#
+# Measure the findById and createProduct paths under one JDBC pool profile.
+# Requires wrk (https://github.com/wg/wrk) and a MySQL-backed service.
+#
+# Start the service with the bench profile and the pool profile to measure:
+#   ./mvnw spring-boot:run -Dspring-boot.run.profiles=bench,pool-latency
+# then run this script, restart with bench,pool-throughput and run it again.
+# To see what statement caching is worth, also run with
+#   -Dspring-boot.run.arguments=--spring.datasource.hikari.data-source-properties.cachePrepStmts=false
+#
+# Usage: bench/pool-benchmark.sh [connections] [duration] [threads]
+
+set -euo pipefail
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+CONNECTIONS="${1:-200}"
+DURATION="${2:-60s}"
+THREADS="${3:-$(nproc)}"
+PRODUCT_ID="${PRODUCT_ID:-1}"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+# Print the pool meters after a run: size, saturation, waiting threads, acquire and usage times
+pool_metrics() {
+    curl -s "$BASE_URL/actuator/prometheus" \
+        | grep -E '^hikaricp_connections(_max|_saturation|_pending|_timeout_total|_acquire_seconds|_usage_seconds)\{' \
+        | grep -E 'quantile="0.99"|_max\{|_saturation|_pending|_timeout_total' || true
+}
+
+run() {
+    local name="$1"
+    shift
+    echo "== $name ($CONNECTIONS connections, $DURATION)"
+    # Warm up the JIT and fill the statement caches before measuring
+    wrk -t "$THREADS" -c 50 -d 10s "$@" > /dev/null
+    wrk -t "$THREADS" -c "$CONNECTIONS" -d "$DURATION" --timeout 10s --latency "$@"
+    pool_metrics
+    echo
+}
+
+run "findById" "$BASE_URL/api/products/$PRODUCT_ID"
+run "createProduct" -s "$SCRIPT_DIR/create-product.lua" "$BASE_URL"
@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+#
+# Compare the blocking and reactive product read endpoints under many
+# concurrent connections. Requires wrk (https://github.com/wg/wrk).
+#
+# Start the service with the bench profile first, so throttling does not
+# reject the load generator:
+#   ./mvnw spring-boot:run -Dspring-boot.run.profiles=bench
+#
+# Usage: bench/read-benchmark.sh [connections] [duration] [threads]
+
+set -euo pipefail
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+CONNECTIONS="${1:-10000}"
+DURATION="${2:-60s}"
+THREADS="${3:-$(nproc)}"
+PRODUCT_ID="${PRODUCT_ID:-1}"
+QUERY="${QUERY:-lap}"
+
+# wrk holds one socket per connection
+if [ "$(ulimit -n)" != "unlimited" ] && [ "$(ulimit -n)" -lt $((CONNECTIONS + 1024)) ]; then
+    ulimit -n $((CONNECTIONS + 1024)) 2>/dev/null || {
+        echo "Open file limit $(ulimit -n) is too low for $CONNECTIONS connections" >&2
+        exit 1
+    }
+fi
+
+run() {
+    local name="$1" path="$2"
+    echo "== $name: $path ($CONNECTIONS connections, $DURATION)"
+    # Warm up the JIT and both connection pools before measuring
+    wrk -t "$THREADS" -c 100 -d 10s "$BASE_URL$path" > /dev/null
+    wrk -t "$THREADS" -c "$CONNECTIONS" -d "$DURATION" --timeout 10s --latency "$BASE_URL$path"
+    echo
+}
+
+for stack in products reactive/products; do
+    run "$stack by id" "/api/$stack/$PRODUCT_ID"
+    run "$stack page" "/api/$stack?page=0&size=20"
+    run "$stack search" "/api/$stack/search?query=$QUERY&page=0&size=20"
+done
@@ -0,0 +1,35 @@
+package com.ecommerce.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM stand-in for the invalidation bus, for local runs and tests.
+ * Messages are delivered to every subscriber of this JVM on the
+ * publishing thread; deployments with several instances declare an
+ * {@link InvalidationBus} bean backed by a real broadcast channel instead.
+ */
+@Slf4j
+public class EmbeddedInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (Consumer<Invalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException ex) {
+                log.warn("Cache invalidation listener failed for {}", invalidation, ex);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,265 @@
+package com.ecommerce.product.columnar;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.repository.ProductCatalogRow;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Optional in-memory columnar copy of the catalog that serves paged, sorted
+ * product lists without a database round trip.
+ * <p>
+ * The catalog is read through a projection into a {@link ProductColumns}
+ * snapshot in direct buffers, so its size does not add to heap or GC work,
+ * and swapped in once complete. Checkouts on this instance patch stock in
+ * place. The snapshot is rebuilt when this instance has created a product,
+ * and at least every {@code catalog.columnar.max-age-ms} to pick up changes
+ * made elsewhere, so lists may lag the database by up to that long.
+ * <p>
+ * While no snapshot is loaded, or for a sort it cannot serve, {@link #page}
+ * returns empty and the caller reads from the database.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ColumnarProductStore implements ApplicationRunner {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final long maxAgeMillis;
+
+    private volatile ProductColumns columns;
+    private volatile long loadedAt;
+    private volatile boolean stale;
+    // Guards loading, stockDuringLoad and swapping in a loaded snapshot
+    private final Object stockLock = new Object();
+    private boolean loading;
+    // Stock updated while a load is running, applied to the loaded snapshot
+    private final Map<Long, Integer> stockDuringLoad = new HashMap<>();
+
+    public ColumnarProductStore(ProductRepository productRepository, ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${catalog.columnar.enabled:false}") boolean enabled,
+                                @Value("${catalog.columnar.load-batch-size:5000}") int loadBatchSize,
+                                @Value("${catalog.columnar.max-age-ms:60000}") long maxAgeMillis) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.maxAgeMillis = maxAgeMillis;
+
+        if (enabled) {
+            meterRegistry.ifAvailable(registry -> {
+                Gauge.builder("product.columnar.rows", this, store -> store.columns == null ? 0 : store.columns.rows())
+                        .register(registry);
+                Gauge.builder("product.columnar.off.heap", this,
+                                store -> store.columns == null ? 0 : store.columns.capacity())
+                        .baseUnit("bytes")
+                        .register(registry);
+            });
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Read a page of products from the snapshot.
+     *
+     * @param pageable pagination information, sorted by one of id, sku, name,
+     *                 price or stock, optionally followed by id in the same direction
+     * @return the page, or empty if there is no snapshot or the sort is not supported
+     */
+    public Optional<PagedProductResponse> page(Pageable pageable) {
+        ProductColumns current = columns;
+        if (current == null || pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+
+        String property = ProductColumns.ID;
+        boolean descending = false;
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() > 2 || (orders.size() == 2 && !isIdTiebreak(orders.get(0), orders.get(1)))) {
+            return Optional.empty();
+        }
+        if (!orders.isEmpty()) {
+            property = orders.get(0).getProperty();
+            descending = orders.get(0).isDescending();
+        }
+        IntUnaryOperator order = current.order(property);
+        if (order == null) {
+            return Optional.empty();
+        }
+
+        int rows = current.rows();
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        List<ProductResponse> content = new ArrayList<>();
+        for (long position = offset; position < Math.min(rows, offset + size); position++) {
+            int index = descending ? rows - 1 - (int) position : (int) position;
+            content.add(current.product(order.applyAsInt(index)));
+        }
+
+        int totalPages = (int) Math.ceil((double) rows / size);
+        return Optional.of(PagedProductResponse.builder()
+                .content(content)
+                .page(pageable.getPageNumber())
+                .size(size)
+                .totalElements((long) rows)
+                .totalPages(totalPages)
+                .last(pageable.getPageNumber() + 1 >= totalPages)
+                .build());
+    }
+
+    /**
+     * Whether the second order only breaks ties by ID, which the permutations
+     * already do: equal values keep ascending ID order, reversed when descending.
+     */
+    private static boolean isIdTiebreak(Sort.Order first, Sort.Order second) {
+        return ProductColumns.ID.equals(second.getProperty()) && first.getDirection() == second.getDirection();
+    }
+
+    /**
+     * Note that the catalog has changed, so the snapshot is rebuilt on the next
+     * refresh. Within a transaction, this takes effect once it has committed.
+     */
+    public void markStale() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+        } else {
+            stale = true;
+        }
+    }
+
+    /**
+     * Set the stock of products after a checkout, without rebuilding the
+     * snapshot. Within a transaction, this takes effect once it has committed.
+     *
+     * @param stockById the new stock by product ID
+     */
+    public void updateStock(Map<Long, Integer> stockById) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyStock(stockById);
+                }
+            });
+        } else {
+            applyStock(stockById);
+        }
+    }
+
+    private void applyStock(Map<Long, Integer> stockById) {
+        // A load swaps in its snapshot either before or after this, never in between
+        synchronized (stockLock) {
+            if (loading) {
+                stockDuringLoad.putAll(stockById);
+            }
+            ProductColumns current = columns;
+            if (current != null) {
+                stockById.forEach(current::updateStock);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the snapshot if it is stale or older than the maximum age, and
+     * sort it by stock again if checkouts have changed stock since.
+     */
+    @Scheduled(fixedDelayString = "${catalog.columnar.refresh-interval-ms:1000}",
+            initialDelayString = "${catalog.columnar.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (stale || System.currentTimeMillis() - loadedAt >= maxAgeMillis) {
+            load();
+        }
+        ProductColumns current = columns;
+        if (current != null) {
+            current.sortStock();
+        }
+    }
+
+    /**
+     * Read the whole catalog in ID order and swap in the new snapshot.
+     * Products created while loading may be missed, so they mark it stale
+     * again; stock updated while loading is applied to the new snapshot.
+     */
+    synchronized void load() {
+        long start = System.currentTimeMillis();
+        stale = false;
+        synchronized (stockLock) {
+            stockDuringLoad.clear();
+            loading = true;
+        }
+        ProductColumns loaded = null;
+        try {
+            long expectedRows = productRepository.count();
+            ProductColumns.Builder builder = new ProductColumns.Builder((int) Math.min(Integer.MAX_VALUE, expectedRows));
+            long cursor = 0;
+            while (true) {
+                List<ProductCatalogRow> batch = productRepository.findCatalogAfter(cursor,
+                        PageRequest.ofSize(loadBatchSize));
+                batch.forEach(builder::add);
+                if (batch.size() < loadBatchSize) {
+                    break;
+                }
+                cursor = batch.get(batch.size() - 1).id();
+            }
+            loaded = builder.build();
+        } catch (RuntimeException ex) {
+            // Retried on the next refresh rather than after the maximum age
+            stale = true;
+            throw ex;
+        } finally {
+            synchronized (stockLock) {
+                if (loaded != null) {
+                    // Replayed before publishing, so no newer update can be overwritten by an older one
+                    stockDuringLoad.forEach(loaded::updateStock);
+                    columns = loaded;
+                }
+                stockDuringLoad.clear();
+                loading = false;
+            }
+        }
+        loadedAt = System.currentTimeMillis();
+        log.debug("Columnar catalog loaded {} products ({} bytes off-heap) in {} ms",
+                loaded.rows(), loaded.capacity(), loadedAt - start);
+    }
+}
@@ -0,0 +1,300 @@
+package com.ecommerce.product.columnar;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.repository.ProductCatalogRow;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Columnar snapshot of the catalog, held in direct buffers outside the Java
+ * heap. Rows are in ascending ID order; for every other sortable column a
+ * permutation of row numbers in ascending column order is kept, so a sorted
+ * page is read straight from the permutation. Ties keep ID order.
+ * Strings sort in {@link String#CASE_INSENSITIVE_ORDER}, which otherwise
+ * compares UTF-16 code units, with nulls first. This is not a database
+ * collation: H2 compares case-sensitively by default and MySQL's default
+ * also ignores accents, so string-sorted pages can differ from the database.
+ * <p>
+ * Only stock changes after the snapshot is built: checkouts patch it in
+ * place. Until {@link #sortStock()} has sorted the patched values again,
+ * rows cannot be read in stock order.
+ */
+final class ProductColumns {
+
+    static final String ID = "id";
+
+    private static final int CURRENCY_BYTES = 3;
+
+    private final int rows;
+    private final ByteBuffer ids;
+    private final ByteBuffer prices;
+    private final ByteBuffer currencies;
+    private final ByteBuffer stocks;
+    private final StringColumn skus;
+    private final StringColumn names;
+    private final StringColumn descriptions;
+    private final Map<String, ByteBuffer> permutations;
+    private volatile ByteBuffer stockPermutation;
+    private int stockVersion;
+
+    private ProductColumns(int rows, ByteBuffer ids, ByteBuffer prices, ByteBuffer currencies, ByteBuffer stocks,
+                           StringColumn skus, StringColumn names, StringColumn descriptions) {
+        this.rows = rows;
+        this.ids = ids;
+        this.prices = prices;
+        this.currencies = currencies;
+        this.stocks = stocks;
+        this.skus = skus;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.permutations = Map.of(
+                "sku", permutation(rows, byString(skus)),
+                "name", permutation(rows, byString(names)),
+                "price", permutation(rows, (a, b) -> Long.compare(prices.getLong(8 * a), prices.getLong(8 * b))));
+        this.stockPermutation = permutation(rows, this::compareStock);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * The row order of a property: maps a position in ascending order to
+     * its row number.
+     *
+     * @param property an entity property name
+     * @return the order, or null if rows cannot be read in the order of the property
+     */
+    IntUnaryOperator order(String property) {
+        if (ID.equals(property)) {
+            return IntUnaryOperator.identity();
+        }
+        ByteBuffer permutation = "stock".equals(property) ? stockPermutation : permutations.get(property);
+        return permutation == null ? null : position -> permutation.getInt(4 * position);
+    }
+
+    /**
+     * Set the stock of a product in place. Rows cannot be read in stock
+     * order again until {@link #sortStock()} has run.
+     *
+     * @return whether the product is in the snapshot
+     */
+    synchronized boolean updateStock(long id, int stock) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        stocks.putInt(4 * row, stock);
+        stockVersion++;
+        stockPermutation = null;
+        return true;
+    }
+
+    /**
+     * Sort rows by stock again after updates. The permutation is only kept
+     * if no update arrived while sorting.
+     */
+    void sortStock() {
+        int version;
+        synchronized (this) {
+            if (stockPermutation != null) {
+                return;
+            }
+            version = stockVersion;
+        }
+        ByteBuffer sorted = permutation(rows, this::compareStock);
+        synchronized (this) {
+            if (version == stockVersion) {
+                stockPermutation = sorted;
+            }
+        }
+    }
+
+    private int compareStock(int a, int b) {
+        return Integer.compare(stocks.getInt(4 * a), stocks.getInt(4 * b));
+    }
+
+    /**
+     * Binary search of the ID column.
+     *
+     * @return the row of the ID, or -1 if it is not in the snapshot
+     */
+    private int rowOf(long id) {
+        int low = 0;
+        int high = rows - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long current = ids.getLong(8 * middle);
+            if (current < id) {
+                low = middle + 1;
+            } else if (current > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    ProductResponse product(int row) {
+        return ProductResponse.builder()
+                .id(ids.getLong(8 * row))
+                .sku(skus.get(row))
+                .name(names.get(row))
+                .description(descriptions.get(row))
+                .price(prices.getLong(8 * row))
+                .currency(currency(row))
+                .stock(stocks.getInt(4 * row))
+                .build();
+    }
+
+    private String currency(int row) {
+        byte[] code = new byte[CURRENCY_BYTES];
+        currencies.get(CURRENCY_BYTES * row, code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Off-heap bytes reserved by the columns and permutations.
+     */
+    long capacity() {
+        long capacity = (long) ids.capacity() + prices.capacity() + currencies.capacity() + stocks.capacity()
+                + skus.capacity() + names.capacity() + descriptions.capacity();
+        for (ByteBuffer permutation : permutations.values()) {
+            capacity += permutation.capacity();
+        }
+        ByteBuffer stockOrder = stockPermutation;
+        return stockOrder == null ? capacity : capacity + stockOrder.capacity();
+    }
+
+    /**
+     * Return the buffer, or a copy twice as large when it has less than the
+     * requested space left. Columns are limited to 2 GB each.
+     */
+    static ByteBuffer ensureRemaining(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        long required = (long) buffer.position() + needed;
+        long capacity = Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * buffer.capacity()));
+        if (capacity < required) {
+            throw new IllegalStateException("Catalog column exceeds 2 GB");
+        }
+        ByteBuffer grown = allocate(capacity);
+        grown.put(buffer.flip());
+        return grown;
+    }
+
+    /**
+     * Allocate a direct buffer, capped at the largest buffer size.
+     */
+    static ByteBuffer allocate(long capacity) {
+        return ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE - 8, capacity));
+    }
+
+    /**
+     * Sort row numbers into a direct buffer.
+     */
+    private static ByteBuffer permutation(int rows, RowOrder order) {
+        int[] perm = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            perm[row] = row;
+        }
+        mergeSort(perm, new int[rows], 0, rows, order);
+
+        ByteBuffer buffer = allocate(Math.max(4, 4L * rows));
+        for (int row : perm) {
+            buffer.putInt(row);
+        }
+        return buffer;
+    }
+
+    /**
+     * Case-insensitive order of a string column, compared on the encoded bytes.
+     */
+    private static RowOrder byString(StringColumn column) {
+        return column::compareIgnoreCase;
+    }
+
+    /**
+     * Stable merge sort of primitive row numbers, so equal values keep ID order.
+     */
+    private static void mergeSort(int[] rows, int[] scratch, int from, int to, RowOrder order) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, scratch, from, middle, order);
+        mergeSort(rows, scratch, middle, to, order);
+        if (order.compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && order.compare(scratch[left], scratch[right]) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+
+        int compare(int a, int b);
+    }
+
+    /**
+     * Collects products in ascending ID order into growable direct buffers.
+     */
+    static final class Builder {
+
+        private int rows;
+        private long lastId = Long.MIN_VALUE;
+        private ByteBuffer ids;
+        private ByteBuffer prices;
+        private ByteBuffer currencies;
+        private ByteBuffer stocks;
+        private final StringColumn.Builder skus;
+        private final StringColumn.Builder names;
+        private final StringColumn.Builder descriptions;
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            this.ids = allocate(8L * capacity);
+            this.prices = allocate(8L * capacity);
+            this.currencies = allocate((long) CURRENCY_BYTES * capacity);
+            this.stocks = allocate(4L * capacity);
+            this.skus = new StringColumn.Builder(capacity);
+            this.names = new StringColumn.Builder(capacity);
+            this.descriptions = new StringColumn.Builder(capacity);
+        }
+
+        void add(ProductCatalogRow product) {
+            if (product.id() <= lastId) {
+                throw new IllegalArgumentException("Products must be added in ascending ID order");
+            }
+            lastId = product.id();
+            ids = ensureRemaining(ids, 8).putLong(product.id());
+            prices = ensureRemaining(prices, 8).putLong(product.price());
+            currencies = ensureRemaining(currencies, CURRENCY_BYTES)
+                    .put(product.currency().getBytes(StandardCharsets.US_ASCII), 0, CURRENCY_BYTES);
+            stocks = ensureRemaining(stocks, 4).putInt(product.stock());
+            skus.add(product.sku());
+            names.add(product.name());
+            descriptions.add(product.description());
+            rows++;
+        }
+
+        ProductColumns build() {
+            return new ProductColumns(rows, ids, prices, currencies, stocks,
+                    skus.build(), names.build(), descriptions.build());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.product.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Off-heap column of nullable strings: the UTF-8 bytes of all rows in one
+ * direct buffer, and the end offset of each row in another.
+ * A null row is stored as the bitwise complement of its (empty) end offset.
+ */
+final class StringColumn {
+
+    private final ByteBuffer bytes;
+    private final ByteBuffer ends;
+
+    private StringColumn(ByteBuffer bytes, ByteBuffer ends) {
+        this.bytes = bytes;
+        this.ends = ends;
+    }
+
+    String get(int row) {
+        int end = ends.getInt(4 * row);
+        if (end < 0) {
+            return null;
+        }
+        int start = start(row);
+        byte[] value = new byte[end - start];
+        bytes.get(start, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare two rows as {@link String#CASE_INSENSITIVE_ORDER} compares their
+     * values, on the encoded bytes: ASCII letters are folded in place, and the
+     * two values are decoded only where they first differ in a non-ASCII byte.
+     * Null rows sort first.
+     */
+    int compareIgnoreCase(int a, int b) {
+        int endA = ends.getInt(4 * a);
+        int endB = ends.getInt(4 * b);
+        if (endA < 0 || endB < 0) {
+            return Boolean.compare(endA >= 0, endB >= 0);
+        }
+        int startA = start(a);
+        int startB = start(b);
+        int common = Math.min(endA - startA, endB - startB);
+        for (int i = 0; i < common; i++) {
+            byte x = bytes.get(startA + i);
+            byte y = bytes.get(startB + i);
+            if (x == y) {
+                continue;
+            }
+            if (x < 0 || y < 0) {
+                return String.CASE_INSENSITIVE_ORDER.compare(get(a), get(b));
+            }
+            int difference = lowerAscii(x) - lowerAscii(y);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        // Equal up to the shorter value, which has fewer characters
+        return (endA - startA) - (endB - startB);
+    }
+
+    long capacity() {
+        return (long) bytes.capacity() + ends.capacity();
+    }
+
+    private int start(int row) {
+        return row == 0 ? 0 : offset(ends.getInt(4 * (row - 1)));
+    }
+
+    private static int lowerAscii(byte value) {
+        return value >= 'A' && value <= 'Z' ? value + ('a' - 'A') : value;
+    }
+
+    private static int offset(int end) {
+        return end < 0 ? ~end : end;
+    }
+
+    static final class Builder {
+
+        private ByteBuffer bytes;
+        private ByteBuffer ends;
+
+        Builder(int expectedRows) {
+            this.bytes = ProductColumns.allocate(Math.max(64, expectedRows * 16L));
+            this.ends = ProductColumns.allocate(Math.max(16, expectedRows * 4L));
+        }
+
+        void add(String value) {
+            if (value != null) {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                bytes = ProductColumns.ensureRemaining(bytes, encoded.length);
+                bytes.put(encoded);
+            }
+            ends = ProductColumns.ensureRemaining(ends, 4);
+            ends.putInt(value == null ? ~bytes.position() : bytes.position());
+        }
+
+        StringColumn build() {
+            return new StringColumn(bytes, ends);
+        }
+    }
+}
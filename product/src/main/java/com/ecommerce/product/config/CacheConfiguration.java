@@ -0,0 +1,67 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.cache.EmbeddedInvalidationBus;
+import com.ecommerce.product.cache.EmbeddedRemoteCache;
+import com.ecommerce.product.cache.InvalidationBus;
+import com.ecommerce.product.cache.RemoteCache;
+import com.ecommerce.product.cache.TwoLevelCache;
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Two-level caches for products by ID and search result pages.
+ * The remote cache and invalidation bus declared here are the in-JVM
+ * stand-ins; a deployment with several instances replaces these two
+ * beans with ones backed by a shared cache and a broadcast channel.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public RemoteCache remoteCache(@Value("${cache.remote.embedded.max-entries:100000}") int maxEntries) {
+        return new EmbeddedRemoteCache(maxEntries);
+    }
+
+    @Bean
+    public InvalidationBus invalidationBus() {
+        return new EmbeddedInvalidationBus();
+    }
+
+    @Bean
+    public TwoLevelCache<ProductResponse> productCache(
+            RemoteCache remoteCache, InvalidationBus invalidationBus, ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${cache.two-level.enabled:true}") boolean enabled,
+            @Value("${cache.product.near.max-entries:10000}") int nearMaxEntries,
+            @Value("${cache.product.near.ttl-ms:5000}") long nearTtlMillis,
+            @Value("${cache.product.remote.ttl-ms:60000}") long remoteTtlMillis) {
+        if (!enabled) {
+            return TwoLevelCache.disabled("product");
+        }
+        return new TwoLevelCache<>("product", ProductResponse.class, objectMapper, remoteCache, invalidationBus,
+                nearMaxEntries, Duration.ofMillis(nearTtlMillis), Duration.ofMillis(remoteTtlMillis), meterRegistry);
+    }
+
+    @Bean
+    public TwoLevelCache<PagedProductResponse> searchCache(
+            RemoteCache remoteCache, InvalidationBus invalidationBus, ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${cache.two-level.enabled:true}") boolean enabled,
+            @Value("${cache.search.near.max-entries:1000}") int nearMaxEntries,
+            @Value("${cache.search.near.ttl-ms:2000}") long nearTtlMillis,
+            @Value("${cache.search.remote.ttl-ms:10000}") long remoteTtlMillis) {
+        if (!enabled) {
+            return TwoLevelCache.disabled("search");
+        }
+        return new TwoLevelCache<>("search", PagedProductResponse.class, objectMapper, remoteCache, invalidationBus,
+                nearMaxEntries, Duration.ofMillis(nearTtlMillis), Duration.ofMillis(remoteTtlMillis), meterRegistry);
+    }
+}
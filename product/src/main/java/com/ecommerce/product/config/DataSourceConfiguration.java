@@ -0,0 +1,51 @@
+package com.ecommerce.product.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC data source for the JPA write path.
+ * Spring Boot backs off from auto-configuring a DataSource once an R2DBC
+ * ConnectionFactory is present, so with the reactive read stack on the
+ * classpath it is declared here, bound to the usual spring.datasource.*
+ * and spring.datasource.hikari.* properties.
+ * <p>
+ * The schema is owned by the Flyway migrations in db/migration, applied
+ * before JPA starts and validated by Hibernate.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Apply pending migrations unless spring.flyway.enabled is false.
+     * Under AOT the Flyway beans are fixed at build time and ignore that
+     * property, so it is checked again here; the CDS training run relies on
+     * it to start without a database.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            }
+        };
+    }
+}
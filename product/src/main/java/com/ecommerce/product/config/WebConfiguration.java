@@ -0,0 +1,150 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.throttle.AdaptiveConcurrencyLimiter;
+import com.ecommerce.product.throttle.ConcurrencyLimitInterceptor;
+import com.ecommerce.product.throttle.RateLimitInterceptor;
+import com.ecommerce.product.throttle.RateLimiter;
+import com.ecommerce.product.throttle.ThrottleProperties;
+import com.ecommerce.product.warmup.HotKeyInterceptor;
+import com.ecommerce.product.warmup.HotKeyLog;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration: request throttling in front of the controllers,
+ * the executor async controllers run their repository calls on, and the
+ * binary (CBOR, Smile) message converters.
+ * Expensive routes get their own limits so a search storm cannot starve
+ * cheap lookups.
+ */
+@Configuration
+@EnableConfigurationProperties(ThrottleProperties.class)
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private static final String[] SEARCH_PATHS = {"/api/products/search", "/api/reactive/products/search"};
+
+    private final ThrottleProperties throttleProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<HotKeyLog> hotKeyLog;
+    private final int ioPoolSize;
+    private final int ioQueueCapacity;
+    private final long asyncTimeoutMillis;
+
+    public WebConfiguration(ThrottleProperties throttleProperties, ObjectProvider<MeterRegistry> meterRegistry,
+                            ObjectProvider<HotKeyLog> hotKeyLog,
+                            @Value("${async.io.pool-size:50}") int ioPoolSize,
+                            @Value("${async.io.queue-capacity:500}") int ioQueueCapacity,
+                            @Value("${async.request-timeout-ms:30000}") long asyncTimeoutMillis) {
+        this.throttleProperties = throttleProperties;
+        this.meterRegistry = meterRegistry;
+        this.hotKeyLog = hotKeyLog;
+        this.ioPoolSize = ioPoolSize;
+        this.ioQueueCapacity = ioQueueCapacity;
+        this.asyncTimeoutMillis = asyncTimeoutMillis;
+    }
+
+    /**
+     * Bounded executor for blocking repository calls made on behalf of
+     * async controllers. When it is saturated, new work is rejected and
+     * answered with 503 instead of queueing without limit.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ioExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("io-");
+        executor.setCorePoolSize(ioPoolSize);
+        executor.setMaxPoolSize(ioPoolSize);
+        executor.setQueueCapacity(ioQueueCapacity);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMillis);
+        configurer.setTaskExecutor(ioExecutor());
+    }
+
+    /**
+     * CBOR and Smile encodings next to JSON, for internal callers that ask
+     * for them in the Accept header. Both are built from Boot's mapper builder,
+     * so they follow the same spring.jackson.* settings as JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        RateLimiter rateLimiter = new RateLimiter(throttleProperties.getRateLimit(), throttleProperties.getMaxBuckets());
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("throttle.rate.limit.buckets", rateLimiter, RateLimiter::getBucketCount).register(registry);
+            FunctionCounter.builder("throttle.rate.limit.rejected", rateLimiter, RateLimiter::getRejected)
+                    .register(registry);
+        });
+        return rateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rate limits first, so rejected clients never hold a concurrency permit
+        RateLimiter rateLimiter = rateLimiter();
+        if (rateLimiter.hasLimits("search")) {
+            registry.addInterceptor(new RateLimitInterceptor("search", rateLimiter))
+                    .addPathPatterns(SEARCH_PATHS);
+        }
+        if (rateLimiter.hasLimits("default")) {
+            registry.addInterceptor(new RateLimitInterceptor("default", rateLimiter))
+                    .addPathPatterns("/api/**")
+                    .excludePathPatterns(SEARCH_PATHS);
+        }
+
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter("search")))
+                .addPathPatterns(SEARCH_PATHS);
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter("default")))
+                .addPathPatterns("/api/**")
+                .excludePathPatterns(SEARCH_PATHS);
+
+        // Only requests that got past the limits count towards the next warm-up
+        hotKeyLog.ifAvailable(log -> registry.addInterceptor(new HotKeyInterceptor(log))
+                .addPathPatterns("/api/products/*", "/api/reactive/products/*"));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String route) {
+        ThrottleProperties.ConcurrencyLimit settings = throttleProperties.getConcurrency()
+                .getOrDefault(route, new ThrottleProperties.ConcurrencyLimit());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(route,
+                settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit(),
+                settings.getSmoothing(), settings.getRttTolerance());
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("throttle.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("route", route).register(registry);
+            Gauge.builder("throttle.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("route", route).register(registry);
+            FunctionCounter.builder("throttle.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("route", route).register(registry);
+        });
+        return limiter;
+    }
+}
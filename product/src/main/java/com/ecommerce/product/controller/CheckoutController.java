@@ -0,0 +1,44 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.CheckoutRequest;
+import com.ecommerce.product.dto.OrderResponse;
+import com.ecommerce.product.service.CheckoutService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST controller for checkout.
+ * The request thread is released while the checkout waits for its batch.
+ */
+@RestController
+@RequestMapping("/api/checkout")
+@RequiredArgsConstructor
+public class CheckoutController {
+
+    private final CheckoutService checkoutService;
+
+    /**
+     * Check out a cart.
+     * POST /api/checkout
+     *
+     * @param idempotencyKey client-chosen key, at most 64 characters, sent unchanged on every retry
+     * @param request        the cart
+     * @return the placed order with 201 status, or with 200 status if a request
+     * with the same key had already placed it
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<OrderResponse>> checkout(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CheckoutRequest request) {
+
+        return checkoutService.checkout(idempotencyKey, request)
+                .thenApply(result -> ResponseEntity
+                        .status(result.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+                        .body(result.order()));
+    }
+}
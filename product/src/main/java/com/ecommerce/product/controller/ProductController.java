@@ -5,24 +5,35 @@ import com.ecommerce.product.dto.PagedProductResponse;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.service.ProductService;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * REST controller for product management.
  * Provides endpoints for CRUD operations, search, and pagination.
+ * Read endpoints return {@link CompletableFuture}: the repository call runs
+ * on the bounded I/O executor and the request thread is released meanwhile.
  */
 @RestController
 @RequestMapping("/api/products")
-@RequiredArgsConstructor
 public class ProductController {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final ProductService productService;
+    private final Executor ioExecutor;
+
+    public ProductController(ProductService productService, @Qualifier("ioExecutor") Executor ioExecutor) {
+        this.productService = productService;
+        this.ioExecutor = ioExecutor;
+    }
 
     /**
      * Create a new product.
@@ -45,9 +56,25 @@ public class ProductController {
      * @return the product response with 200 status
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ProductResponse>> getProductById(@PathVariable Long id) {
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(productService.getProductById(id)), ioExecutor);
+    }
+
+    /**
+     * Get several products by ID. Cached products are read from the cache
+     * and the rest are loaded with one query; unknown IDs are left out of
+     * the result.
+     * GET /api/products/batch?ids=1,2,3
+     *
+     * @param ids the product IDs (at most 100)
+     * @return the found products in request order with 200 status
+     */
+    @GetMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<ProductResponse>>> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " IDs can be requested at once");
+        }
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(productService.getProductsByIds(ids)), ioExecutor);
     }
 
     /**
@@ -55,19 +82,18 @@ public class ProductController {
      * GET /api/products
      *
      * @param page the page number (default: 0)
-     * @param size the page size (default: 20)
-     * @param sort the sort criteria (default: "sku,asc")
+     * @param size the page size, at most 100 (default: 20)
+     * @param sort the sort criteria, one of id, sku, name, price or stock (default: "sku,asc")
      * @return paginated product list with 200 status
      */
     @GetMapping
-    public ResponseEntity<PagedProductResponse> getAllProducts(
+    public CompletableFuture<ResponseEntity<PagedProductResponse>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "sku,asc") String sort) {
 
-        Pageable pageable = createPageable(page, size, sort);
-        PagedProductResponse response = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(response);
+        Pageable pageable = SortableColumn.pageRequest(page, size, sort);
+        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok(productService.getAllProducts(pageable)), ioExecutor);
     }
 
     /**
@@ -76,37 +102,19 @@ public class ProductController {
      *
      * @param query the search query
      * @param page  the page number (default: 0)
-     * @param size  the page size (default: 20)
-     * @param sort  the sort criteria (default: "sku,asc")
+     * @param size  the page size, at most 100 (default: 20)
+     * @param sort  the sort criteria, one of id, sku, name, price or stock (default: "sku,asc")
      * @return paginated search results with 200 status
      */
     @GetMapping("/search")
-    public ResponseEntity<PagedProductResponse> searchProducts(
+    public CompletableFuture<ResponseEntity<PagedProductResponse>> searchProducts(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "sku,asc") String sort) {
 
-        Pageable pageable = createPageable(page, size, sort);
-        PagedProductResponse response = productService.searchProducts(query, pageable);
-        return ResponseEntity.ok(response);
-    }
-
-    /**
-     * Create a Pageable object from pagination parameters.
-     *
-     * @param page the page number
-     * @param size the page size
-     * @param sort the sort criteria in format "property,direction"
-     * @return the Pageable object
-     */
-    private Pageable createPageable(int page, int size, String sort) {
-        String[] sortParams = sort.split(",");
-        String property = sortParams[0];
-        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
-                ? Sort.Direction.DESC
-                : Sort.Direction.ASC;
-
-        return PageRequest.of(page, size, Sort.by(direction, property));
+        Pageable pageable = SortableColumn.pageRequest(page, size, sort);
+        return CompletableFuture.supplyAsync(
+                () -> ResponseEntity.ok(productService.searchProducts(query, pageable)), ioExecutor);
     }
 }
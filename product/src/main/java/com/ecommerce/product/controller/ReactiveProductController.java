@@ -0,0 +1,72 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the product read endpoints.
+ * Handlers return {@link Mono}, so the servlet request is put into async
+ * mode and the request thread is released while R2DBC runs the query.
+ * Writes stay on {@link ProductController}.
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+@RequiredArgsConstructor
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+
+    /**
+     * Get a product by ID.
+     * GET /api/reactive/products/{id}
+     *
+     * @param id the product ID
+     * @return the product response
+     */
+    @GetMapping("/{id}")
+    public Mono<ProductResponse> getProductById(@PathVariable Long id) {
+        return reactiveProductService.getProductById(id);
+    }
+
+    /**
+     * Get all products with pagination.
+     * GET /api/reactive/products
+     *
+     * @param page the page number (default: 0)
+     * @param size the page size, at most 100 (default: 20)
+     * @param sort the sort criteria, one of id, sku, name, price or stock (default: "sku,asc")
+     * @return paginated product list
+     */
+    @GetMapping
+    public Mono<PagedProductResponse> getAllProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "sku,asc") String sort) {
+
+        return reactiveProductService.getAllProducts(SortableColumn.pageRequest(page, size, sort));
+    }
+
+    /**
+     * Search products by name with wildcard matching.
+     * GET /api/reactive/products/search
+     *
+     * @param query the search query
+     * @param page  the page number (default: 0)
+     * @param size  the page size, at most 100 (default: 20)
+     * @param sort  the sort criteria, one of id, sku, name, price or stock (default: "sku,asc")
+     * @return paginated search results
+     */
+    @GetMapping("/search")
+    public Mono<PagedProductResponse> searchProducts(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "sku,asc") String sort) {
+
+        return reactiveProductService.searchProducts(query, SortableColumn.pageRequest(page, size, sort));
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.product.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Columns product lists can be sorted by. Each one has an index on the
+ * products table, so a sorted page is read from the index instead of
+ * sorting the table. Other columns are rejected.
+ * <p>
+ * The {@link Sort} for each column and direction is built once. Ties are
+ * broken by ID in the same direction, which the secondary indexes cover
+ * since they include the primary key, so pages do not overlap.
+ */
+public enum SortableColumn {
+
+    ID("id"),
+    SKU("sku"),
+    NAME("name"),
+    PRICE("price"),
+    STOCK("stock");
+
+    /**
+     * Largest page size a client can request.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Map<String, SortableColumn> BY_PROPERTY = new HashMap<>();
+    private static final Map<String, Sort> BY_PARAMETER = new HashMap<>();
+    private static final String PROPERTIES = Arrays.stream(values())
+            .map(SortableColumn::getProperty)
+            .collect(Collectors.joining(", "));
+
+    static {
+        for (SortableColumn column : values()) {
+            BY_PROPERTY.put(column.property, column);
+            BY_PARAMETER.put(column.property, column.ascending);
+            BY_PARAMETER.put(column.property + ",asc", column.ascending);
+            BY_PARAMETER.put(column.property + ",desc", column.descending);
+        }
+    }
+
+    private final String property;
+    private final Sort ascending;
+    private final Sort descending;
+
+    SortableColumn(String property) {
+        this.property = property;
+        this.ascending = sort(property, Sort.Direction.ASC);
+        this.descending = sort(property, Sort.Direction.DESC);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Build the page request for a list endpoint.
+     *
+     * @param page the page number, from 0
+     * @param size the page size, from 1 to {@link #MAX_PAGE_SIZE}
+     * @param sort the sort criteria in format "property,direction"
+     * @return the page request
+     * @throws IllegalArgumentException if the page, size or sort is not allowed
+     */
+    public static Pageable pageRequest(int page, int size, String sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(page, size, parse(sort));
+    }
+
+    /**
+     * Resolve a sort parameter to its prebuilt Sort.
+     *
+     * @param sort the sort criteria in format "property,direction"
+     * @return the prebuilt Sort
+     * @throws IllegalArgumentException if the column is not sortable or the direction is invalid
+     */
+    static Sort parse(String sort) {
+        Sort prebuilt = BY_PARAMETER.get(sort);
+        if (prebuilt != null) {
+            return prebuilt;
+        }
+
+        int comma = sort.indexOf(',');
+        String property = (comma < 0 ? sort : sort.substring(0, comma)).trim();
+        String direction = comma < 0 ? "asc" : sort.substring(comma + 1).trim();
+        SortableColumn column = BY_PROPERTY.get(property.toLowerCase(Locale.ROOT));
+        if (column == null) {
+            throw new IllegalArgumentException(
+                    "Cannot sort by '" + property + "'; sortable columns are " + PROPERTIES);
+        }
+        if (direction.equalsIgnoreCase("asc")) {
+            return column.ascending;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return column.descending;
+        }
+        throw new IllegalArgumentException("Sort direction must be 'asc' or 'desc'");
+    }
+
+    private static Sort sort(String property, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+}
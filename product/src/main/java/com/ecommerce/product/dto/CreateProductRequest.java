@@ -1,9 +1,9 @@
 package com.ecommerce.product.dto;
 
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,9 +28,18 @@ public class CreateProductRequest {
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
     private String description;
 
+    /**
+     * Price in minor units of the currency (cents for USD).
+     */
     @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", message = "Price must be greater than or equal to 0")
-    private Double price;
+    @Min(value = 0, message = "Price must be greater than or equal to 0")
+    private Long price;
+
+    /**
+     * ISO 4217 currency code; defaults to USD.
+     */
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO 4217 code")
+    private String currency;
 
     @NotNull(message = "Stock is required")
     @Min(value = 0, message = "Stock must be greater than or equal to 0")
@@ -0,0 +1,30 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one line of a placed order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItemResponse {
+
+    private Long productId;
+    private String sku;
+    private Integer quantity;
+
+    /**
+     * Price at checkout, in minor units of the order currency.
+     */
+    private Long unitPrice;
+
+    /**
+     * Unit price times quantity, in minor units.
+     */
+    private Long lineTotal;
+}
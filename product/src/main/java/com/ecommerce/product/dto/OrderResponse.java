@@ -0,0 +1,38 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a placed order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderResponse {
+
+    private Long id;
+    private String idempotencyKey;
+
+    /**
+     * Sum of the line totals, in minor units of the currency.
+     */
+    private Long total;
+
+    /**
+     * ISO 4217 currency code shared by all items.
+     */
+    private String currency;
+
+    /**
+     * Epoch milliseconds.
+     */
+    private Long createdAt;
+
+    private List<OrderItemResponse> items;
+}
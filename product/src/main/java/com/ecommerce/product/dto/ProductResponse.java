@@ -18,6 +18,10 @@ public class ProductResponse {
     private String sku;
     private String name;
     private String description;
-    private Double price;
+    /**
+     * Price in minor units of the currency (cents for USD).
+     */
+    private long price;
+    private String currency;
     private Integer stock;
 }
@@ -0,0 +1,65 @@
+package com.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEntity {
+
+    /**
+     * Allocated in blocks from the id_generators table, so inserts can be JDBC-batched.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Client-chosen key; a checkout retried with it returns this order.
+     */
+    @Column(name = "idempotency_key", unique = true, nullable = false, length = 64)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the cart, to reject the key being reused for another cart.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * Sum of the line totals, in minor units of the currency.
+     */
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    /**
+     * Epoch milliseconds.
+     */
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @Builder.Default
+    private List<OrderItemEntity> items = new ArrayList<>();
+
+    public void addItem(OrderItemEntity item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+}
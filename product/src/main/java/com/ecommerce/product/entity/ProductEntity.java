@@ -1,7 +1,6 @@
 package com.ecommerce.product.entity;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,14 +9,24 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ProductEntity.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ProductEntity {
+
+    /**
+     * Second-level cache region, sized in application.conf.
+     */
+    public static final String CACHE_REGION = "product";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,10 +43,19 @@ public class ProductEntity {
     @Column(length = 1000)
     private String description;
 
-    @NotNull
-    @DecimalMin("0.0")
+    /**
+     * Price in minor units of the currency (cents for USD).
+     */
+    @Min(0)
     @Column(nullable = false)
-    private Double price;
+    private long price;
+
+    /**
+     * ISO 4217 currency code of the price.
+     */
+    @NotBlank
+    @Column(nullable = false, length = 3)
+    private String currency;
 
     @NotNull
     @Min(0)
@@ -0,0 +1,28 @@
+package com.ecommerce.product.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only view of the products table for the reactive read stack.
+ * Writes go through {@link ProductEntity}; this type is never saved.
+ */
+@Table("products")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductRow {
+    @Id
+    private Long id;
+    private String sku;
+    private String name;
+    private String description;
+    private long price;
+    private String currency;
+    private Integer stock;
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.product.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link MonitoredDataSource} so
+ * every JPA and JDBC statement is recorded in {@link QueryStatistics}.
+ */
+@Component
+public class QueryMonitoringPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryStatistics> queryStatistics;
+
+    public QueryMonitoringPostProcessor(ObjectProvider<QueryStatistics> queryStatistics) {
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof MonitoredDataSource)) {
+            return new MonitoredDataSource(dataSource, queryStatistics.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.product.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time statistics for one statement fingerprint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryStatisticsSnapshot {
+
+    private String fingerprint;
+    private Long count;
+    private Long slowCount;
+    private Double totalMillis;
+    private Double maxMillis;
+    private Long rows;
+    private String plan;
+}
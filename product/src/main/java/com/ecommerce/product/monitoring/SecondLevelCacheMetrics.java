@@ -0,0 +1,54 @@
+package com.ecommerce.product.monitoring;
+
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Publishes hibernate.second.level.cache.hit.ratio per cache region: hits
+ * over hits plus misses since start. The counts themselves are in
+ * Hibernate's hibernate.second.level.cache.requests meter. Needs
+ * hibernate.generate_statistics.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        meterRegistry.ifAvailable(registry -> {
+            for (String region : regions(statistics)) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                s -> hitRatio(s.getCacheRegionStatistics(region)))
+                        .tag("region", region)
+                        .description("Second-level cache hits over lookups")
+                        .register(registry);
+            }
+        });
+    }
+
+    static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return 0;
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? 0 : (double) region.getHitCount() / lookups;
+    }
+
+    private static Set<String> regions(Statistics statistics) {
+        Set<String> regions = new TreeSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()));
+        // Named query cache regions only exist once their query first runs
+        regions.add(ProductRepository.SKU_CACHE_REGION);
+        return regions;
+    }
+}
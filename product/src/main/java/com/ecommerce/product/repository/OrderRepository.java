@@ -0,0 +1,35 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.OrderEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for orders placed by checkout.
+ */
+@Repository
+public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+
+    /**
+     * Find the order placed with an idempotency key, with its items.
+     *
+     * @param idempotencyKey the client's idempotency key
+     * @return Optional containing the order if one was placed
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<OrderEntity> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Find the orders placed with any of the idempotency keys, with their items.
+     *
+     * @param idempotencyKeys the idempotency keys of a checkout batch
+     * @return the orders already placed
+     */
+    @EntityGraph(attributePaths = "items")
+    List<OrderEntity> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+}
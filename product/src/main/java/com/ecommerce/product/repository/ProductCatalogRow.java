@@ -0,0 +1,10 @@
+package com.ecommerce.product.repository;
+
+/**
+ * Projection of the product columns kept by the columnar catalog. Read
+ * with a constructor expression, so loading the whole catalog creates no
+ * entities and leaves the second-level cache alone.
+ */
+public record ProductCatalogRow(Long id, String sku, String name, String description, long price,
+                                String currency, Integer stock) {
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.product.repository;
+
+/**
+ * Projection of a product's ID and name, used to build the search index
+ * without loading whole entities.
+ */
+public interface ProductNameView {
+
+    Long getId();
+
+    String getName();
+}
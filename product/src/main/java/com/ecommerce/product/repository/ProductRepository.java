@@ -1,13 +1,20 @@
 package com.ecommerce.product.repository;
 
 import com.ecommerce.product.entity.ProductEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,12 +25,22 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
+    /**
+     * Query cache region for {@link #findBySku(String)}, sized in application.conf.
+     */
+    String SKU_CACHE_REGION = "product-by-sku";
+
     /**
      * Find a product by its SKU.
+     * The result is kept in the query cache until the products table changes.
      *
      * @param sku the product SKU
      * @return Optional containing the product if found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SKU_CACHE_REGION)
+    })
     Optional<ProductEntity> findBySku(String sku);
 
     /**
@@ -58,6 +75,55 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
             "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<ProductEntity> searchByNameOrDescription(@Param("query") String query, Pageable pageable);
 
+    /**
+     * Search the given products by name, as {@link #searchByName} does.
+     * The name is matched again, so IDs that now belong to other products
+     * (e.g. from a search index older than the database) are left out.
+     *
+     * @param ids      the candidate product IDs
+     * @param name     the search query (partial name)
+     * @param pageable pagination information
+     * @return Page of the candidates that exist and match the query
+     */
+    @Query("SELECT p FROM ProductEntity p WHERE p.id IN :ids AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<ProductEntity> searchByNameAmongIds(@Param("ids") Collection<Long> ids, @Param("name") String name,
+                                             Pageable pageable);
+
+    /**
+     * Find the IDs and names of products with an ID above the given one,
+     * in ascending ID order. Used to page through the catalog by key.
+     *
+     * @param id       exclusive lower bound of the product ID
+     * @param pageable limits the number of rows
+     * @return product IDs and names
+     */
+    @Query("SELECT p.id AS id, p.name AS name FROM ProductEntity p WHERE p.id > :id ORDER BY p.id")
+    List<ProductNameView> findNamesAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find the catalog columns of products with an ID above the given one,
+     * in ascending ID order. Used to page through the whole catalog by key.
+     *
+     * @param id       exclusive lower bound of the product ID
+     * @param pageable limits the number of rows
+     * @return the product rows
+     */
+    @Query("SELECT new com.ecommerce.product.repository.ProductCatalogRow(p.id, p.sku, p.name, p.description, " +
+            "p.price, p.currency, p.stock) FROM ProductEntity p WHERE p.id > :id ORDER BY p.id")
+    List<ProductCatalogRow> findCatalogAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find products by ID and lock their rows until the transaction ends.
+     * Rows are locked in ID order, so transactions locking overlapping sets
+     * cannot deadlock. Bypasses the second-level cache.
+     *
+     * @param ids the product IDs
+     * @return the products that exist, in ID order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ProductEntity p WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductEntity> lockByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Find all products with pagination support.
      * This method is inherited from JpaRepository but explicitly documented here.
@@ -0,0 +1,24 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking repository over the products table (R2DBC).
+ * Serves the reactive read endpoints; all writes use {@link ProductRepository}.
+ * Name searches come from the {@link ProductRowSearch} fragment.
+ */
+@Repository
+public interface ProductRowRepository extends R2dbcRepository<ProductRow, Long>, ProductRowSearch {
+
+    /**
+     * Find one page of all products.
+     *
+     * @param pageable pagination and sort information
+     * @return the products of the page
+     */
+    Flux<ProductRow> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductRow;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Name search for {@link ProductRowRepository}, matching
+ * {@link ProductRepository#searchByName}: {@code %} and {@code _} in the
+ * query are LIKE wildcards, which derived {@code Containing} queries escape.
+ */
+public interface ProductRowSearch {
+
+    /**
+     * Search products by name with wildcard matching (case-insensitive).
+     *
+     * @param name     the search query (partial name)
+     * @param pageable pagination and sort information
+     * @return the matching products of the page
+     */
+    Flux<ProductRow> searchByName(String name, Pageable pageable);
+
+    /**
+     * Count the products matching a name search.
+     *
+     * @param name the search query (partial name)
+     * @return the number of matching products
+     */
+    Mono<Long> countSearchByName(String name);
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ProductRowSearch}, picked up by Spring Data as a
+ * fragment of {@link ProductRowRepository}.
+ */
+@RequiredArgsConstructor
+class ProductRowSearchImpl implements ProductRowSearch {
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<ProductRow> searchByName(String name, Pageable pageable) {
+        return template.select(nameLike(name).with(pageable), ProductRow.class);
+    }
+
+    @Override
+    public Mono<Long> countSearchByName(String name) {
+        return template.count(nameLike(name), ProductRow.class);
+    }
+
+    /**
+     * The query as a bare LIKE pattern, as in {@code LIKE CONCAT('%', :name, '%')}.
+     */
+    private static Query nameLike(String name) {
+        return Query.query(Criteria.where("name").like("%" + name + "%").ignoreCase(true));
+    }
+}
@@ -0,0 +1,298 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.repository.ProductNameView;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Trigram index over product names, answering the substring searches of
+ * {@link ProductRepository#searchByName} without a table scan.
+ * <p>
+ * The index is an immutable {@link SearchSegment} file, memory-mapped on
+ * startup, plus an in-memory delta of products added since the segment was
+ * written. On startup only the rows above the segment's high-water ID are
+ * replayed from the database, so a restart does not rebuild the index. The
+ * delta is topped up periodically from the database, which also picks up
+ * products created by other instances, and is merged into a new segment
+ * generation once it grows past the compaction threshold.
+ * <p>
+ * Until loaded, and for queries it cannot answer, {@link #matchingIds}
+ * returns empty and the caller falls back to the database.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProductSearchIndex implements ApplicationRunner {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int replayBatchSize;
+    private final long replayOverlap;
+    private final int compactThreshold;
+    private final int maxResults;
+
+    private final NavigableMap<Long, String> delta = new ConcurrentSkipListMap<>();
+    private volatile SearchSegment segment;
+    private volatile boolean loaded;
+
+    public ProductSearchIndex(ProductRepository productRepository, ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${search.index.enabled:false}") boolean enabled,
+                              @Value("${search.index.directory:data/search-index}") Path directory,
+                              @Value("${search.index.replay-batch-size:5000}") int replayBatchSize,
+                              @Value("${search.index.replay-overlap:100}") long replayOverlap,
+                              @Value("${search.index.compact-threshold:10000}") int compactThreshold,
+                              @Value("${search.index.max-results:1000}") int maxResults) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.replayBatchSize = replayBatchSize;
+        this.replayOverlap = replayOverlap;
+        this.compactThreshold = compactThreshold;
+        this.maxResults = maxResults;
+
+        if (enabled) {
+            meterRegistry.ifAvailable(registry -> {
+                Gauge.builder("product.search.index.documents", this, ProductSearchIndex::segmentDocuments)
+                        .register(registry);
+                Gauge.builder("product.search.index.delta", delta, Map::size).register(registry);
+            });
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Find the products whose name contains the query, ignoring case.
+     *
+     * @param query the search query
+     * @return the matching product IDs in ascending order, or empty if the
+     * index cannot answer the query: it is not loaded, the query is shorter
+     * than a trigram or contains LIKE wildcards, or there are more than
+     * {@code search.index.max-results} matches
+     */
+    public Optional<List<Long>> matchingIds(String query) {
+        if (!loaded || query == null) {
+            return Optional.empty();
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        if (needle.length() < SearchSegment.GRAM_LENGTH || needle.indexOf('%') >= 0 || needle.indexOf('_') >= 0) {
+            return Optional.empty();
+        }
+
+        SearchSegment current = segment;
+        long[] fromSegment = current == null ? new long[0] : current.search(needle, maxResults);
+        List<Long> ids = new ArrayList<>(fromSegment.length);
+        for (long id : fromSegment) {
+            ids.add(id);
+        }
+        for (Map.Entry<Long, String> entry : delta.entrySet()) {
+            if (entry.getValue().contains(needle)) {
+                ids.add(entry.getKey());
+            }
+        }
+        if (ids.size() > maxResults) {
+            return Optional.empty();
+        }
+        // A product may be in both while a compaction swaps segments
+        return Optional.of(ids.stream().sorted().distinct().toList());
+    }
+
+    /**
+     * Add a product this instance has just created, so it is searchable
+     * without waiting for the next refresh.
+     *
+     * @param id   the product ID
+     * @param name the product name
+     */
+    public void add(Long id, String name) {
+        if (loaded) {
+            index(id, name);
+        }
+    }
+
+    /**
+     * Replay products added to the database since the last refresh, and
+     * compact the delta into a new segment once it is large enough.
+     * Rows within {@code search.index.replay-overlap} IDs below the highest
+     * indexed one are read again, to catch inserts that committed out of ID order.
+     */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:5000}",
+            initialDelayString = "${search.index.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        replayAfter(Math.max(0, highWaterId() - replayOverlap));
+        if (delta.size() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Map the newest readable segment and replay the rows above its high-water ID.
+     * Without a segment, the whole catalog is read and written as the first one.
+     */
+    synchronized void load() {
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(directory);
+            segment = openNewestSegment();
+        } catch (IOException ex) {
+            log.warn("Could not read search index directory {}: {}", directory, ex.getMessage());
+        }
+
+        SearchSegment current = segment;
+        int replayed = replayAfter(current == null ? 0 : current.highWaterId());
+        loaded = true;
+        log.info("Search index loaded {} products from segment generation {} and replayed {} in {} ms",
+                segmentDocuments(), current == null ? 0 : current.generation(), replayed,
+                System.currentTimeMillis() - start);
+
+        if (current == null || delta.size() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Merge the segment and the delta into a new segment generation, switch
+     * searches over to it and delete the older segment files.
+     */
+    synchronized void compact() {
+        SearchSegment current = segment;
+        NavigableMap<Long, String> merged = new TreeMap<>();
+        if (current != null) {
+            current.forEach(merged::put);
+        }
+        Map<Long, String> compacted = new TreeMap<>(delta);
+        merged.putAll(compacted);
+
+        long generation = current == null ? 1 : current.generation() + 1;
+        Path path = directory.resolve(SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+        try {
+            SearchSegment.write(path, generation, merged);
+            segment = SearchSegment.open(path);
+        } catch (IOException ex) {
+            log.warn("Could not write search index segment {}: {}", path, ex.getMessage());
+            return;
+        }
+        compacted.forEach(delta::remove);
+        deleteSegmentsBefore(generation);
+        log.info("Search index compacted {} products into segment generation {}", merged.size(), generation);
+    }
+
+    private int replayAfter(long afterId) {
+        int replayed = 0;
+        long cursor = afterId;
+        while (true) {
+            List<ProductNameView> batch = productRepository.findNamesAfter(cursor, PageRequest.ofSize(replayBatchSize));
+            for (ProductNameView product : batch) {
+                index(product.getId(), product.getName());
+                cursor = product.getId();
+            }
+            replayed += batch.size();
+            if (batch.size() < replayBatchSize) {
+                return replayed;
+            }
+        }
+    }
+
+    private void index(Long id, String name) {
+        SearchSegment current = segment;
+        if (name != null && (current == null || !current.contains(id))) {
+            delta.put(id, name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private long highWaterId() {
+        SearchSegment current = segment;
+        long fromSegment = current == null ? 0 : current.highWaterId();
+        return delta.isEmpty() ? fromSegment : Math.max(fromSegment, delta.lastKey());
+    }
+
+    private int segmentDocuments() {
+        SearchSegment current = segment;
+        return current == null ? 0 : current.documents();
+    }
+
+    private SearchSegment openNewestSegment() throws IOException {
+        for (Path path : segmentFiles()) {
+            try {
+                return SearchSegment.open(path);
+            } catch (IOException ex) {
+                log.warn("Skipping unreadable search index segment {}: {}", path, ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void deleteSegmentsBefore(long generation) {
+        try {
+            for (Path path : segmentFiles()) {
+                if (generationOf(path) < generation) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not delete old search index segments in {}: {}", directory, ex.getMessage());
+        }
+    }
+
+    /**
+     * Segment files in the index directory, newest generation first.
+     */
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                if (generationOf(path) > 0) {
+                    files.add(path);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(ProductSearchIndex::generationOf).reversed());
+        return files;
+    }
+
+    private static long generationOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+}
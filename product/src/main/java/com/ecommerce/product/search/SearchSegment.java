@@ -0,0 +1,340 @@
+package com.ecommerce.product.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable segment of the product name index, read through a memory-mapped file.
+ * Names are indexed by their character trigrams; a search intersects the
+ * postings of the query's trigrams and confirms each candidate against the
+ * stored name, so results match a case-insensitive substring search.
+ * <p>
+ * File layout, big-endian:
+ * <pre>
+ * header    int magic, int format version, long generation, long high-water product ID,
+ *           int document count, int term count
+ * ids       long[documents]            product ID per document number, ascending
+ * names     int[documents + 1]         offsets into the name bytes, followed by the
+ *                                      lowercased UTF-8 names
+ * terms     (long trigram, int first posting, int posting count)[terms], ascending by trigram
+ * postings  int[]                      ascending document numbers per term
+ * </pre>
+ */
+final class SearchSegment {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final int MAGIC = 0x50534547;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int TERM_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final long generation;
+    private final long highWaterId;
+    private final int documents;
+    private final int terms;
+    private final int nameOffsetsStart;
+    private final int namesStart;
+    private final int termsStart;
+    private final int postingsStart;
+
+    private SearchSegment(Path path, ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a search index segment");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(path + " has unsupported format version " + buffer.getInt(4));
+        }
+
+        this.buffer = buffer;
+        this.generation = buffer.getLong(8);
+        this.highWaterId = buffer.getLong(16);
+        this.documents = buffer.getInt(24);
+        this.terms = buffer.getInt(28);
+
+        long nameOffsets = HEADER_BYTES + 8L * documents;
+        long names = nameOffsets + 4L * (documents + 1);
+        if (documents < 0 || terms < 0 || names > buffer.capacity()) {
+            throw new IOException(path + " is truncated");
+        }
+        long termsOffset = names + buffer.getInt((int) nameOffsets + 4 * documents);
+        long postings = termsOffset + (long) TERM_BYTES * terms;
+        if (postings > buffer.capacity() || (buffer.capacity() - postings) % 4 != 0) {
+            throw new IOException(path + " is truncated");
+        }
+        this.nameOffsetsStart = (int) nameOffsets;
+        this.namesStart = (int) names;
+        this.termsStart = (int) termsOffset;
+        this.postingsStart = (int) postings;
+    }
+
+    /**
+     * Map a segment file into memory.
+     *
+     * @param path the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a valid segment
+     */
+    static SearchSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is larger than 2 GB");
+            }
+            return new SearchSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a segment file atomically: it is written next to the target and
+     * moved into place once complete.
+     *
+     * @param path       the segment file
+     * @param generation the segment generation
+     * @param names      lowercased product names by product ID
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, long generation, NavigableMap<Long, String> names) throws IOException {
+        int documents = names.size();
+        long[] ids = new long[documents];
+        byte[][] nameBytes = new byte[documents][];
+        Map<Long, Postings> postings = new HashMap<>();
+
+        int doc = 0;
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            ids[doc] = entry.getKey();
+            nameBytes[doc] = entry.getValue().getBytes(StandardCharsets.UTF_8);
+            for (long gram : trigrams(entry.getValue())) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+            }
+            doc++;
+        }
+        long[] grams = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(generation);
+            out.writeLong(documents == 0 ? 0 : ids[documents - 1]);
+            out.writeInt(documents);
+            out.writeInt(grams.length);
+
+            for (long id : ids) {
+                out.writeLong(id);
+            }
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] name : nameBytes) {
+                offset += name.length;
+                out.writeInt(offset);
+            }
+            for (byte[] name : nameBytes) {
+                out.write(name);
+            }
+
+            int first = 0;
+            for (long gram : grams) {
+                int count = postings.get(gram).size;
+                out.writeLong(gram);
+                out.writeInt(first);
+                out.writeInt(count);
+                first += count;
+            }
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                for (int i = 0; i < list.size; i++) {
+                    out.writeInt(list.docs[i]);
+                }
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        if (Files.size(tmp) > Integer.MAX_VALUE) {
+            Files.delete(tmp);
+            throw new IOException("Segment for " + documents + " documents is larger than 2 GB");
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long highWaterId() {
+        return highWaterId;
+    }
+
+    int documents() {
+        return documents;
+    }
+
+    /**
+     * Whether the segment holds a product.
+     *
+     * @param id the product ID
+     */
+    boolean contains(long id) {
+        int low = 0;
+        int high = documents - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = id(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the products whose name contains the query.
+     *
+     * @param query the lowercased query, at least {@link #GRAM_LENGTH} characters
+     * @param limit the most results the caller can use
+     * @return matching product IDs in ascending order; more than {@code limit}
+     * means there are too many matches and the result is incomplete
+     */
+    long[] search(String query, int limit) {
+        long[] grams = trigrams(query);
+        int[][] lists = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            int term = findTerm(grams[i]);
+            if (term < 0) {
+                return new long[0];
+            }
+            int entry = termsStart + term * TERM_BYTES;
+            lists[i] = new int[]{buffer.getInt(entry + 8), buffer.getInt(entry + 12)};
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a[1], b[1]));
+
+        byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+        long[] matches = new long[Math.min(lists[0][1], limit + 1)];
+        int found = 0;
+        int[] cursors = new int[lists.length];
+        for (int i = 0; i < lists[0][1] && found <= limit; i++) {
+            int doc = posting(lists[0], i);
+            if (inAllLists(doc, lists, cursors) && nameContains(doc, needle)) {
+                matches[found++] = id(doc);
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    /**
+     * Visit every document in product ID order.
+     *
+     * @param consumer receives the product ID and lowercased name
+     */
+    void forEach(BiConsumer<Long, String> consumer) {
+        for (int doc = 0; doc < documents; doc++) {
+            int from = buffer.getInt(nameOffsetsStart + 4 * doc);
+            int to = buffer.getInt(nameOffsetsStart + 4 * (doc + 1));
+            byte[] name = new byte[to - from];
+            buffer.get(namesStart + from, name);
+            consumer.accept(id(doc), new String(name, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The distinct trigrams of a string, each packed as three UTF-16 units.
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).sorted().distinct().toArray();
+    }
+
+    private long id(int doc) {
+        return buffer.getLong(HEADER_BYTES + 8 * doc);
+    }
+
+    private int posting(int[] list, int index) {
+        return buffer.getInt(postingsStart + 4 * (list[0] + index));
+    }
+
+    private int findTerm(long gram) {
+        int low = 0;
+        int high = terms - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midGram = buffer.getLong(termsStart + mid * TERM_BYTES);
+            if (midGram < gram) {
+                low = mid + 1;
+            } else if (midGram > gram) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the document appears in every other postings list. Documents are
+     * checked in ascending order, so each list is walked forward from its cursor.
+     */
+    private boolean inAllLists(int doc, int[][] lists, int[] cursors) {
+        for (int l = 1; l < lists.length; l++) {
+            int[] list = lists[l];
+            while (cursors[l] < list[1] && posting(list, cursors[l]) < doc) {
+                cursors[l]++;
+            }
+            if (cursors[l] == list[1] || posting(list, cursors[l]) != doc) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean nameContains(int doc, byte[] needle) {
+        int from = namesStart + buffer.getInt(nameOffsetsStart + 4 * doc);
+        int to = namesStart + buffer.getInt(nameOffsetsStart + 4 * (doc + 1));
+        outer:
+        for (int start = from; start <= to - needle.length; start++) {
+            for (int i = 0; i < needle.length; i++) {
+                if (buffer.get(start + i) != needle[i]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.product.serialization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded Caffeine cache of gzip-compressed page bodies.
+ * An entry remembers the cached product slices the page was built from and
+ * is only reused while the page consists of the very same slice arrays.
+ * Because {@link ProductJsonCache} hands out a new array whenever a product
+ * changes, a change to any product on the page invalidates the entry.
+ */
+final class CompressedPageCache {
+
+    private final Cache<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CompressedPageCache(int maxEntries) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Get the compressed page, compressing and caching it if it is missing or stale.
+     *
+     * @param key        identifies the page: its product IDs and envelope
+     * @param slices     the cached product slices the page is built from
+     * @param compressor compresses the page
+     * @return the compressed page; callers must not modify the array
+     */
+    byte[] get(String key, byte[][] slices, Supplier<byte[]> compressor) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && sameSlices(entry.slices(), slices)) {
+            hits.increment();
+            return entry.compressed();
+        }
+
+        misses.increment();
+        byte[] compressed = compressor.get();
+        entries.put(key, new Entry(slices, compressed));
+        return compressed;
+    }
+
+    int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private static boolean sameSlices(byte[][] cached, byte[][] current) {
+        if (cached.length != current.length) {
+            return false;
+        }
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != current[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(byte[][] slices, byte[] compressed) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.product.serialization;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of product JSON, already encoded as UTF-8, keyed by product ID.
+ * Each entry keeps a snapshot of the product it was encoded from; a lookup
+ * only reuses the bytes while the product still equals that snapshot, so
+ * any change to a product invalidates its entry on the next write.
+ * The cache is size-bounded; past the bound, the products least likely to
+ * be written again are evicted, so deleted products do not stay forever.
+ */
+public final class ProductJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ProductJsonCache(ObjectMapper objectMapper, int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Get the JSON for a product, encoding and caching it if the cached
+     * bytes are missing or stale.
+     *
+     * @param product the product to encode
+     * @return the UTF-8 JSON; callers must not modify the array
+     * @throws JsonProcessingException if the product cannot be serialized
+     */
+    public byte[] encode(ProductResponse product) throws JsonProcessingException {
+        Long id = product.getId();
+        if (id == null) {
+            return objectMapper.writeValueAsBytes(product);
+        }
+
+        Entry entry = entries.getIfPresent(id);
+        if (entry != null && entry.product().equals(product)) {
+            hits.increment();
+            return entry.json();
+        }
+
+        misses.increment();
+        ProductResponse snapshot = copy(product);
+        byte[] json = objectMapper.writeValueAsBytes(snapshot);
+        entries.put(id, new Entry(snapshot, json));
+        return json;
+    }
+
+    public int size() {
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Copy the product, so the snapshot cannot change after it was encoded.
+     */
+    private static ProductResponse copy(ProductResponse product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .currency(product.getCurrency())
+                .stock(product.getStock())
+                .build();
+    }
+
+    private record Entry(ProductResponse product, byte[] json) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.ecommerce.product.serialization;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes ProductResponse and PagedProductResponse as JSON from the
+ * {@link ProductJsonCache}. Unchanged products are written from their cached
+ * bytes without going through Jackson, and a page is written as the cached
+ * bytes of its products between a small hand-built envelope.
+ * With server compression enabled, pages at or above the compression
+ * threshold are sent gzip-compressed to clients that accept it, and the
+ * compressed body is cached so a popular page is compressed only once.
+ * Smaller responses and other types are left to the server's compression.
+ * Being a converter bean, Spring Boot registers it ahead of the Jackson
+ * converter; other types and media types still go to Jackson.
+ */
+@Component
+@ConditionalOnProperty(name = "serialization.product-json-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final byte[] PAGE_START = "{\"content\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NULL_CONTENT_START = "{\"content\":null".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = {','};
+
+    private final ProductJsonCache cache;
+    private final CompressedPageCache compressedPages;
+    private final boolean compressionEnabled;
+    private final long compressionMinSize;
+
+    public ProductJsonHttpMessageConverter(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry,
+                                           @Value("${serialization.product-json-cache.max-entries:100000}") int maxEntries,
+                                           @Value("${serialization.product-json-cache.compressed-pages:1000}") int maxCompressedPages,
+                                           @Value("${server.compression.enabled:false}") boolean compressionEnabled,
+                                           @Value("${server.compression.min-response-size:2KB}") DataSize compressionMinSize) {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON);
+        this.cache = new ProductJsonCache(objectMapper, maxEntries);
+        this.compressedPages = new CompressedPageCache(maxCompressedPages);
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinSize = compressionMinSize.toBytes();
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("product.json.cache.size", cache, ProductJsonCache::size).register(registry);
+            FunctionCounter.builder("product.json.cache.hits", cache, ProductJsonCache::getHits).register(registry);
+            FunctionCounter.builder("product.json.cache.misses", cache, ProductJsonCache::getMisses).register(registry);
+            Gauge.builder("product.json.cache.compressed.size", compressedPages, CompressedPageCache::size)
+                    .register(registry);
+            FunctionCounter.builder("product.json.cache.compressed.hits", compressedPages, CompressedPageCache::getHits)
+                    .register(registry);
+            FunctionCounter.builder("product.json.cache.compressed.misses", compressedPages,
+                    CompressedPageCache::getMisses).register(registry);
+        });
+    }
+
+    public ProductJsonCache getCache() {
+        return cache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductResponse.class == clazz || PagedProductResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+        if (object instanceof ProductResponse product) {
+            byte[] json = cache.encode(product);
+            outputMessage.getHeaders().setContentLength(json.length);
+            outputMessage.getBody().write(json);
+        } else {
+            writePage((PagedProductResponse) object, outputMessage);
+        }
+    }
+
+    /**
+     * Write a page as its envelope around the cached product slices.
+     * The envelope follows the field order Jackson uses for PagedProductResponse.
+     */
+    private void writePage(PagedProductResponse page, HttpOutputMessage outputMessage) throws IOException {
+        List<ProductResponse> content = page.getContent();
+        byte[][] slices = new byte[content == null ? 0 : content.size()][];
+        long length = content == null ? NULL_CONTENT_START.length : PAGE_START.length + Math.max(0, slices.length - 1);
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = cache.encode(content.get(i));
+            length += slices[i].length;
+        }
+
+        String envelopeEnd = (content == null ? "" : "]")
+                + ",\"page\":" + page.getPage()
+                + ",\"size\":" + page.getSize()
+                + ",\"totalElements\":" + page.getTotalElements()
+                + ",\"totalPages\":" + page.getTotalPages()
+                + ",\"last\":" + page.getLast()
+                + "}";
+        byte[] start = content == null ? NULL_CONTENT_START : PAGE_START;
+        byte[] end = envelopeEnd.getBytes(StandardCharsets.UTF_8);
+        length += end.length;
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (compressionEnabled && length >= compressionMinSize) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip()) {
+                String key = pageKey(content, envelopeEnd);
+                byte[] compressed = compressedPages.get(key, slices, () -> gzip(start, slices, end));
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                headers.setContentLength(compressed.length);
+                outputMessage.getBody().write(compressed);
+                return;
+            }
+        }
+
+        headers.setContentLength(length);
+        writeSlices(outputMessage.getBody(), start, slices, end);
+    }
+
+    private static void writeSlices(OutputStream body, byte[] start, byte[][] slices, byte[] end) throws IOException {
+        body.write(start);
+        for (int i = 0; i < slices.length; i++) {
+            if (i > 0) {
+                body.write(SEPARATOR);
+            }
+            body.write(slices[i]);
+        }
+        body.write(end);
+    }
+
+    private static byte[] gzip(byte[] start, byte[][] slices, byte[] end) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            writeSlices(gzip, start, slices, end);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String pageKey(List<ProductResponse> content, String envelopeEnd) {
+        StringBuilder key = new StringBuilder();
+        if (content != null) {
+            for (ProductResponse product : content) {
+                key.append(product.getId()).append(',');
+            }
+        }
+        return key.append(envelopeEnd).toString();
+    }
+
+    /**
+     * Whether the current request accepts gzip, going by its Accept-Encoding
+     * header. An explicit gzip entry takes precedence over {@code *}.
+     */
+    private static boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        String acceptEncoding = attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = quality(parts) > 0;
+            } else if (name.equals("*")) {
+                any = quality(parts) > 0;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+
+    /**
+     * The q parameter of one Accept-Encoding entry; 1 if absent, 0 if malformed.
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
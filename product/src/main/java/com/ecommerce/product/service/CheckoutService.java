@@ -0,0 +1,403 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.cache.TwoLevelCache;
+import com.ecommerce.product.columnar.ColumnarProductStore;
+import com.ecommerce.product.dto.CheckoutItem;
+import com.ecommerce.product.dto.CheckoutRequest;
+import com.ecommerce.product.dto.OrderItemResponse;
+import com.ecommerce.product.dto.OrderResponse;
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.entity.OrderEntity;
+import com.ecommerce.product.entity.OrderItemEntity;
+import com.ecommerce.product.entity.ProductEntity;
+import com.ecommerce.product.repository.OrderRepository;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for checkout: reserves stock for a cart and places the order.
+ * Concurrent checkouts are grouped by a {@link MicroBatcher} and placed in
+ * one transaction per batch, which locks each product row once and commits
+ * once for the whole batch. During a flash sale, throughput is then bounded
+ * by the database's commit rate times the batch size, not by one commit per
+ * checkout on a contended row.
+ * <p>
+ * Each checkout carries a client idempotency key. A retry with the same key
+ * returns the order already placed without reserving stock again; retries
+ * of placed orders are answered before joining a batch. Totals are computed
+ * once at checkout in minor units and stored with the order.
+ */
+@Slf4j
+@Service
+public class CheckoutService {
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ColumnarProductStore columnarStore;
+    private final TwoLevelCache<ProductResponse> productCache;
+    private final TwoLevelCache<PagedProductResponse> searchCache;
+    private final TransactionTemplate transactionTemplate;
+    private final MicroBatcher<Checkout, CheckoutResult> batcher;
+
+    private final DistributionSummary batchSizes;
+    private final Counter placed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    public CheckoutService(OrderRepository orderRepository, ProductRepository productRepository,
+                           ColumnarProductStore columnarStore, TwoLevelCache<ProductResponse> productCache,
+                           TwoLevelCache<PagedProductResponse> searchCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${checkout.batch.max-size:100}") int maxBatchSize,
+                           @Value("${checkout.batch.max-wait-ms:5}") long maxWaitMillis,
+                           @Value("${checkout.queue-capacity:10000}") int queueCapacity,
+                           ObjectProvider<MeterRegistry> meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.columnarStore = columnarStore;
+        this.productCache = productCache;
+        this.searchCache = searchCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batcher = new MicroBatcher<>("checkout-batcher", maxBatchSize, Duration.ofMillis(maxWaitMillis),
+                queueCapacity, this::placeBatch);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("checkout.queue.size", batcher, MicroBatcher::queued).register(registry);
+            this.batchSizes = DistributionSummary.builder("checkout.batch.size").register(registry);
+            this.placed = orders(registry, "placed");
+            this.replayed = orders(registry, "replayed");
+            this.rejected = orders(registry, "rejected");
+        } else {
+            this.batchSizes = null;
+            this.placed = null;
+            this.replayed = null;
+            this.rejected = null;
+        }
+    }
+
+    /**
+     * Check out a cart: reserve stock for every item and place the order,
+     * or return the order already placed with the idempotency key.
+     * Quantities of the same product are added up.
+     *
+     * @param idempotencyKey client-chosen key, the same for every retry of this checkout
+     * @param request        the cart
+     * @return completes with the order once its batch has committed; fails with
+     * IllegalArgumentException if a product is not found or the products are priced
+     * in different currencies, with a 409 ResponseStatusException if a product has
+     * too little stock, and with a 422 one if the key was used for a different cart
+     * @throws IllegalArgumentException if the key is missing or too long
+     * @throws java.util.concurrent.RejectedExecutionException if too many checkouts are waiting
+     */
+    public CompletableFuture<CheckoutResult> checkout(String idempotencyKey, CheckoutRequest request) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency-Key header is required");
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must not exceed " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        Checkout checkout = Checkout.of(idempotencyKey, request.getItems());
+
+        // A retry of a placed order costs one indexed read, not a batch slot
+        Optional<OrderEntity> order = orderRepository.findByIdempotencyKey(idempotencyKey);
+        if (order.isPresent()) {
+            CompletableFuture<CheckoutResult> result = new CompletableFuture<>();
+            complete(replay(order.get(), checkout), result);
+            return result;
+        }
+        return batcher.submit(checkout);
+    }
+
+    @PreDestroy
+    public void placeQueuedOnShutdown() throws InterruptedException {
+        batcher.close();
+    }
+
+    /**
+     * Place a batch of checkouts in one transaction and complete their
+     * results after it commits. If the transaction fails, the checkouts are
+     * placed one at a time, so one bad checkout cannot fail the others.
+     */
+    private void placeBatch(List<MicroBatcher.Pending<Checkout, CheckoutResult>> batch) {
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        List<Checkout> checkouts = batch.stream().map(MicroBatcher.Pending::item).toList();
+
+        List<Outcome> outcomes;
+        try {
+            outcomes = placeInTransaction(checkouts);
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                throw ex;
+            }
+            log.warn("Failed to place a batch of {} checkouts, placing them one at a time", batch.size(), ex);
+            batch.forEach(this::placeAlone);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(outcomes.get(i), batch.get(i).result());
+        }
+    }
+
+    /**
+     * Place one checkout of a failed batch in its own transaction. A failure
+     * fails only this checkout, so the rest of the batch is still placed.
+     */
+    private void placeAlone(MicroBatcher.Pending<Checkout, CheckoutResult> pending) {
+        Outcome outcome;
+        try {
+            outcome = placeInTransaction(List.of(pending.item())).get(0);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to place checkout {}", pending.item().idempotencyKey(), ex);
+            pending.result().completeExceptionally(ex);
+            return;
+        }
+        complete(outcome, pending.result());
+    }
+
+    private List<Outcome> placeInTransaction(List<Checkout> checkouts) {
+        try {
+            return transactionTemplate.execute(status -> place(checkouts));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance placed one of the keys meanwhile; the retry finds its order
+            return transactionTemplate.execute(status -> place(checkouts));
+        }
+    }
+
+    private List<Outcome> place(List<Checkout> checkouts) {
+        Map<String, OrderEntity> orders = orderRepository.findByIdempotencyKeyIn(
+                        checkouts.stream().map(Checkout::idempotencyKey).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getIdempotencyKey, Function.identity()));
+
+        // Each product row is locked once for the whole batch
+        TreeSet<Long> productIds = checkouts.stream()
+                .filter(checkout -> !orders.containsKey(checkout.idempotencyKey()))
+                .flatMap(checkout -> checkout.lines().keySet().stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, ProductEntity> products = productIds.isEmpty() ? Map.of()
+                : productRepository.lockByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+
+        long now = System.currentTimeMillis();
+        List<Outcome> outcomes = new ArrayList<>(checkouts.size());
+        List<OrderEntity> newOrders = new ArrayList<>();
+        TreeSet<Long> reserved = new TreeSet<>();
+        for (Checkout checkout : checkouts) {
+            OrderEntity existing = orders.get(checkout.idempotencyKey());
+            if (existing != null) {
+                outcomes.add(replay(existing, checkout));
+                continue;
+            }
+            try {
+                OrderEntity order = reserve(checkout, products, now);
+                orders.put(checkout.idempotencyKey(), order);
+                newOrders.add(order);
+                reserved.addAll(checkout.lines().keySet());
+                outcomes.add(new Outcome(order, false, null));
+            } catch (IllegalArgumentException | ResponseStatusException ex) {
+                outcomes.add(new Outcome(null, false, ex));
+            }
+        }
+
+        // Stock updates are flushed with the order inserts at commit
+        orderRepository.saveAll(newOrders);
+        reserved.forEach(id -> productCache.invalidate(id.toString()));
+        if (!reserved.isEmpty()) {
+            // Cached pages and the columnar copy show stock
+            searchCache.invalidateAll();
+            columnarStore.updateStock(reserved.stream()
+                    .collect(Collectors.toMap(Function.identity(), id -> products.get(id).getStock())));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Take the stock for every line of the checkout and build its order.
+     * Every line is checked before any stock is taken, so a rejected
+     * checkout leaves the stock of the batch untouched.
+     */
+    private static OrderEntity reserve(Checkout checkout, Map<Long, ProductEntity> products, long now) {
+        String currency = null;
+        for (Map.Entry<Long, Integer> line : checkout.lines().entrySet()) {
+            ProductEntity product = products.get(line.getKey());
+            if (product == null) {
+                throw new IllegalArgumentException("Product with ID " + line.getKey() + " not found");
+            }
+            if (currency == null) {
+                currency = product.getCurrency();
+            } else if (!currency.equals(product.getCurrency())) {
+                throw new IllegalArgumentException("All items must be priced in the same currency");
+            }
+            if (product.getStock() < line.getValue()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Not enough stock for product with ID " + line.getKey());
+            }
+        }
+
+        OrderEntity order = OrderEntity.builder()
+                .idempotencyKey(checkout.idempotencyKey())
+                .requestHash(checkout.requestHash())
+                .currency(currency)
+                .createdAt(now)
+                .build();
+        try {
+            long total = 0;
+            for (Map.Entry<Long, Integer> line : checkout.lines().entrySet()) {
+                ProductEntity product = products.get(line.getKey());
+                long lineTotal = Math.multiplyExact(product.getPrice(), line.getValue().longValue());
+                total = Math.addExact(total, lineTotal);
+                order.addItem(OrderItemEntity.builder()
+                        .productId(product.getId())
+                        .sku(product.getSku())
+                        .quantity(line.getValue())
+                        .unitPrice(product.getPrice())
+                        .lineTotal(lineTotal)
+                        .build());
+            }
+            order.setTotal(total);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Order total is too large");
+        }
+
+        checkout.lines().forEach((id, quantity) -> {
+            ProductEntity product = products.get(id);
+            product.setStock(product.getStock() - quantity);
+        });
+        return order;
+    }
+
+    private static Outcome replay(OrderEntity order, Checkout checkout) {
+        if (!order.getRequestHash().equals(checkout.requestHash())) {
+            return new Outcome(null, false, new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency key was already used for a different cart"));
+        }
+        return new Outcome(order, true, null);
+    }
+
+    private void complete(Outcome outcome, CompletableFuture<CheckoutResult> result) {
+        if (outcome.error() != null) {
+            increment(rejected);
+            result.completeExceptionally(outcome.error());
+        } else {
+            increment(outcome.replayed() ? replayed : placed);
+            result.complete(outcome.result());
+        }
+    }
+
+    private static OrderResponse mapToResponse(OrderEntity order) {
+        List<OrderItemResponse> items = order.getItems().stream()
+                .map(item -> OrderItemResponse.builder()
+                        .productId(item.getProductId())
+                        .sku(item.getSku())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .lineTotal(item.getLineTotal())
+                        .build())
+                .collect(Collectors.toList());
+
+        return OrderResponse.builder()
+                .id(order.getId())
+                .idempotencyKey(order.getIdempotencyKey())
+                .total(order.getTotal())
+                .currency(order.getCurrency())
+                .createdAt(order.getCreatedAt())
+                .items(items)
+                .build();
+    }
+
+    private static Counter orders(MeterRegistry registry, String result) {
+        return Counter.builder("checkout.orders")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * Result of a checkout.
+     *
+     * @param order    the placed order
+     * @param replayed whether the order had been placed by an earlier request with the same key
+     */
+    public record CheckoutResult(OrderResponse order, boolean replayed) {
+    }
+
+    /**
+     * A cart ready to be placed, with quantities added up per product, in
+     * product ID order.
+     *
+     * @param requestHash SHA-256 of the lines, the same for any ordering of the cart
+     */
+    record Checkout(String idempotencyKey, SortedMap<Long, Integer> lines, String requestHash) {
+
+        static Checkout of(String idempotencyKey, List<CheckoutItem> items) {
+            SortedMap<Long, Integer> lines = new TreeMap<>();
+            items.forEach(item -> lines.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+            StringBuilder canonical = new StringBuilder();
+            lines.forEach((id, quantity) -> canonical.append(id).append(':').append(quantity).append('\n'));
+            return new Checkout(idempotencyKey, lines, sha256(canonical.toString()));
+        }
+
+        private static String sha256(String value) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+    }
+
+    /**
+     * What placing one checkout of a batch produced: its order, or the
+     * error it was rejected with.
+     */
+    private record Outcome(OrderEntity order, boolean replayed, RuntimeException error) {
+
+        CheckoutResult result() {
+            return new CheckoutResult(mapToResponse(order), replayed);
+        }
+    }
+}
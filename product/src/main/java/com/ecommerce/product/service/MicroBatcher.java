@@ -0,0 +1,148 @@
+package com.ecommerce.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups concurrent submissions into batches handled one at a time by a
+ * single worker thread, so a batch of work shares one transaction.
+ * The worker takes the oldest waiting item and collects more for up to
+ * the maximum wait, or until the batch is full. Under load batches fill
+ * without waiting; an item submitted alone waits at most the maximum wait.
+ * <p>
+ * The queue is bounded: when it is full, submissions are rejected rather
+ * than queued without limit. On close, the items already queued are still
+ * handled.
+ *
+ * @param <I> the submitted item type
+ * @param <O> the result type
+ */
+@Slf4j
+public final class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending<I, O>> queue;
+    private final Consumer<List<Pending<I, O>>> handler;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * @param name         names the worker thread
+     * @param maxBatchSize the most items handed to the handler at once
+     * @param maxWait      how long the oldest item waits for others to join its batch
+     * @param capacity     the most items waiting for a batch
+     * @param handler      handles a batch and completes its results; results it
+     *                     leaves incomplete, or all of them if it throws, fail
+     */
+    public MicroBatcher(String name, int maxBatchSize, Duration maxWait, int capacity,
+                        Consumer<List<Pending<I, O>>> handler) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.handler = handler;
+        this.worker = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Queue an item for the next batch.
+     *
+     * @return the result, completed once the item's batch has been handled
+     * @throws RejectedExecutionException if the queue is full or the batcher is closed
+     */
+    public CompletableFuture<O> submit(I item) {
+        Pending<I, O> pending = new Pending<>(item, new CompletableFuture<>());
+        if (!running) {
+            throw new RejectedExecutionException("Batcher is closed");
+        }
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Too many requests waiting for a batch");
+        }
+        // Closed meanwhile: the worker may have drained the queue and exited without seeing the item
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Batcher is closed");
+        }
+        return pending.result();
+    }
+
+    /**
+     * Number of items waiting for a batch.
+     */
+    public int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting items, handle the queued ones and wait for the worker.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join();
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<Pending<I, O>> batch;
+            try {
+                batch = collect();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                handle(batch);
+            }
+        }
+    }
+
+    private List<Pending<I, O>> collect() throws InterruptedException {
+        List<Pending<I, O>> batch = new ArrayList<>(maxBatchSize);
+        Pending<I, O> first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Pending<I, O> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void handle(List<Pending<I, O>> batch) {
+        try {
+            handler.accept(batch);
+        } catch (RuntimeException | Error ex) {
+            log.warn("Failed to handle a batch of {}", batch.size(), ex);
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+        batch.forEach(pending -> pending.result()
+                .completeExceptionally(new IllegalStateException("Batch handler left the result incomplete")));
+    }
+
+    /**
+     * A submitted item and the result its submitter is waiting for.
+     */
+    public record Pending<I, O>(I item, CompletableFuture<O> result) {
+    }
+}
@@ -1,17 +1,25 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.cache.TwoLevelCache;
+import com.ecommerce.product.columnar.ColumnarProductStore;
 import com.ecommerce.product.dto.CreateProductRequest;
 import com.ecommerce.product.dto.PagedProductResponse;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.entity.ProductEntity;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Currency;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -22,7 +30,17 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final String DEFAULT_CURRENCY = "USD";
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ColumnarProductStore columnarStore;
+    private final TwoLevelCache<ProductResponse> productCache;
+    private final TwoLevelCache<PagedProductResponse> searchCache;
+
+    // Concurrent identical reads share one in-flight repository call
+    private final SingleFlight<Long, ProductResponse> productLoads = new SingleFlight<>();
+    private final SingleFlight<SearchKey, PagedProductResponse> searchLoads = new SingleFlight<>();
 
     /**
      * Create a new product.
@@ -43,47 +61,105 @@ public class ProductService {
                 .name(request.getName())
                 .description(request.getDescription())
                 .price(request.getPrice())
+                .currency(currencyCode(request.getCurrency()))
                 .stock(request.getStock())
                 .build();
 
         ProductEntity savedEntity = productRepository.save(entity);
+        // A rolled-back insert must not leave its ID in the index. Registered
+        // first, so the index has the product before cached pages are dropped
+        afterCommit(() -> searchIndex.add(savedEntity.getId(), savedEntity.getName()));
+        // Both already wait for the commit themselves
+        columnarStore.markStale();
+        // The new product may belong on any cached search page
+        searchCache.invalidateAll();
         return mapToResponse(savedEntity);
     }
 
     /**
-     * Get a product by ID.
+     * Get a product by ID, from the product cache when it holds it.
      *
      * @param id the product ID
      * @return the product response
      * @throws IllegalArgumentException if product not found
      */
     public ProductResponse getProductById(Long id) {
-        ProductEntity entity = productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Product with ID " + id + " not found"));
-        return mapToResponse(entity);
+        return productCache.get(id.toString(), () -> productLoads.execute(id, () -> {
+            ProductEntity entity = productRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Product with ID " + id + " not found"));
+            return mapToResponse(entity);
+        }));
+    }
+
+    /**
+     * Get several products by ID. Cached products come from the product
+     * cache and the rest are loaded with one query.
+     *
+     * @param ids the product IDs
+     * @return the found products in the order of the IDs, each once; unknown IDs are left out
+     */
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        List<String> keys = ids.stream().distinct().map(String::valueOf).toList();
+        Map<String, ProductResponse> products = productCache.getAll(keys, missing ->
+                productRepository.findAllById(missing.stream().map(Long::valueOf).toList()).stream()
+                        .collect(Collectors.toMap(entity -> entity.getId().toString(), this::mapToResponse)));
+        return keys.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
      * Get all products with pagination.
+     * Served from the columnar catalog snapshot when it is enabled and
+     * supports the sort, otherwise from the database.
      *
      * @param pageable pagination information
      * @return paginated product response
      */
     public PagedProductResponse getAllProducts(Pageable pageable) {
-        Page<ProductEntity> page = productRepository.findAll(pageable);
-        return mapToPagedResponse(page);
+        return columnarStore.page(pageable)
+                .orElseGet(() -> mapToPagedResponse(productRepository.findAll(pageable)));
     }
 
     /**
      * Search products by name with wildcard matching.
+     * Pages are kept in the search cache until a product is created.
+     * Matches come from the search index when it can answer the query,
+     * and the page is then loaded by ID with the name checked again, so
+     * an index left over from another database cannot return unrelated
+     * products; otherwise the name is matched in the database.
      *
      * @param query    the search query
      * @param pageable pagination information
      * @return paginated product response
      */
     public PagedProductResponse searchProducts(String query, Pageable pageable) {
-        Page<ProductEntity> page = productRepository.searchByName(query, pageable);
-        return mapToPagedResponse(page);
+        SearchKey key = new SearchKey(query, pageable);
+        return searchCache.get(key.cacheKey(), () -> searchLoads.execute(key, () -> {
+            Page<ProductEntity> page = searchIndex.matchingIds(query)
+                    .map(ids -> ids.isEmpty()
+                            ? Page.<ProductEntity>empty(pageable)
+                            : productRepository.searchByNameAmongIds(ids, query, pageable))
+                    .orElseGet(() -> productRepository.searchByName(query, pageable));
+            return mapToPagedResponse(page);
+        }));
+    }
+
+    /**
+     * Resolve the currency of a new product, defaulting to USD.
+     *
+     * @throws IllegalArgumentException if the code is not an ISO 4217 currency
+     */
+    private static String currencyCode(String code) {
+        if (code == null) {
+            return DEFAULT_CURRENCY;
+        }
+        try {
+            return Currency.getInstance(code).getCurrencyCode();
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown currency '" + code + "'");
+        }
     }
 
     /**
@@ -96,6 +172,7 @@ public class ProductService {
                 .name(entity.getName())
                 .description(entity.getDescription())
                 .price(entity.getPrice())
+                .currency(entity.getCurrency())
                 .stock(entity.getStock())
                 .build();
     }
@@ -117,4 +194,32 @@ public class ProductService {
                 .last(page.isLast())
                 .build();
     }
+
+    /**
+     * Run an action once the current transaction has committed, or now
+     * outside a transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Key identifying one search page for request coalescing and caching.
+     */
+    private record SearchKey(String query, Pageable pageable) {
+
+        // The query goes last, so a '|' in it cannot make two keys collide
+        String cacheKey() {
+            return pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort() + "|" + query;
+        }
+    }
 }
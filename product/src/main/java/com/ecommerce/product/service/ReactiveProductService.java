@@ -0,0 +1,98 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.entity.ProductRow;
+import com.ecommerce.product.repository.ProductRowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking product reads over R2DBC.
+ * No thread waits on the database: results are emitted when the driver
+ * delivers them. Responses match those of {@link ProductService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveProductService {
+
+    private final ProductRowRepository productRowRepository;
+
+    /**
+     * Get a product by ID.
+     *
+     * @param id the product ID
+     * @return the product response, or an IllegalArgumentException if not found
+     */
+    public Mono<ProductResponse> getProductById(Long id) {
+        return productRowRepository.findById(id)
+                .map(this::mapToResponse)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Product with ID " + id + " not found")));
+    }
+
+    /**
+     * Get all products with pagination.
+     *
+     * @param pageable pagination information
+     * @return paginated product response
+     */
+    public Mono<PagedProductResponse> getAllProducts(Pageable pageable) {
+        return toPagedResponse(productRowRepository.findAllBy(pageable), productRowRepository.count(), pageable);
+    }
+
+    /**
+     * Search products by name with wildcard matching.
+     *
+     * @param query    the search query
+     * @param pageable pagination information
+     * @return paginated product response
+     */
+    public Mono<PagedProductResponse> searchProducts(String query, Pageable pageable) {
+        return toPagedResponse(
+                productRowRepository.searchByName(query, pageable),
+                productRowRepository.countSearchByName(query),
+                pageable);
+    }
+
+    /**
+     * Run the page and count queries concurrently and combine them.
+     */
+    private Mono<PagedProductResponse> toPagedResponse(Flux<ProductRow> rows, Mono<Long> total, Pageable pageable) {
+        return Mono.zip(rows.map(this::mapToResponse).collectList(), total)
+                .map(tuple -> mapToPagedResponse(new PageImpl<>(tuple.getT1(), pageable, tuple.getT2())));
+    }
+
+    /**
+     * Map ProductRow to ProductResponse.
+     */
+    private ProductResponse mapToResponse(ProductRow row) {
+        return ProductResponse.builder()
+                .id(row.getId())
+                .sku(row.getSku())
+                .name(row.getName())
+                .description(row.getDescription())
+                .price(row.getPrice())
+                .currency(row.getCurrency())
+                .stock(row.getStock())
+                .build();
+    }
+
+    /**
+     * Map Page<ProductResponse> to PagedProductResponse.
+     */
+    private PagedProductResponse mapToPagedResponse(Page<ProductResponse> page) {
+        return PagedProductResponse.builder()
+                .content(page.getContent())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .last(page.isLast())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.product.throttle;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} and
+ * rejects the rest with 503 before any service or database work is done.
+ * The permit is held until the request completes, including async
+ * processing, so the measured latency covers the full request.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String startAttribute;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+        this.startAttribute = ConcurrencyLimitInterceptor.class.getName() + "." + limiter.getName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async and error dispatches belong to a request that already holds a permit
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry later");
+        }
+        request.setAttribute(startAttribute, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(startAttribute);
+        if (start instanceof Long startNanos) {
+            request.removeAttribute(startAttribute);
+            limiter.release(System.nanoTime() - startNanos);
+        }
+    }
+}
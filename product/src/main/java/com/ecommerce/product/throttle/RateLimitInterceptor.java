@@ -0,0 +1,32 @@
+package com.ecommerce.product.throttle;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-IP and per-token rate limits of one route group.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String TOKEN_HEADER = "X-API-TOKEN";
+
+    private final String route;
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(String route, RateLimiter rateLimiter) {
+        this.route = route;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        rateLimiter.acquire(route, ThrottleProperties.RateLimitKey.IP, request.getRemoteAddr());
+        rateLimiter.acquire(route, ThrottleProperties.RateLimitKey.TOKEN, request.getHeader(TOKEN_HEADER));
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.product.throttle;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process rate limiter holding one {@link TokenBucket} per route and
+ * client key (IP address, API token, username).
+ * Buckets live in a size-bounded Caffeine cache. A bucket expires once
+ * it has been left alone long enough to refill completely, which loses
+ * nothing. Past the capacity, the buckets least likely to be used again,
+ * by frequency and recency, are evicted in amortized constant time.
+ */
+public class RateLimiter {
+
+    private final Map<String, Map<ThrottleProperties.RateLimitKey, ThrottleProperties.RateLimit>> limits;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(Map<String, Map<ThrottleProperties.RateLimitKey, ThrottleProperties.RateLimit>> limits,
+                       int maxBuckets) {
+        this.limits = limits;
+        // Maintenance runs on the request thread: it is amortized constant time and
+        // records each bucket's use before a flood of new clients competes with it
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .executor(Runnable::run)
+                .expireAfter(Expiry.accessing((String key, TokenBucket bucket) -> bucket.getRefillTime()))
+                .build();
+    }
+
+    /**
+     * Take one token for the client key on the route.
+     *
+     * @param route   the route group, as configured under throttle.rate-limit
+     * @param keyType which client attribute the value is
+     * @param value   the client attribute; nothing is checked when null
+     * @throws TooManyRequestsException if the bucket is empty
+     */
+    public void acquire(String route, ThrottleProperties.RateLimitKey keyType, String value) {
+        ThrottleProperties.RateLimit limit = limits.getOrDefault(route, Map.of()).get(keyType);
+        if (limit == null || value == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = route + ':' + keyType + ':' + value;
+        TokenBucket bucket = buckets.get(key,
+                ignored -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many requests",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+    }
+
+    /**
+     * Whether any limit is configured for the route.
+     */
+    public boolean hasLimits(String route) {
+        return !limits.getOrDefault(route, Map.of()).isEmpty();
+    }
+
+    public int getBucketCount() {
+        buckets.cleanUp();
+        return (int) buckets.estimatedSize();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.product.throttle;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request throttling settings, keyed by route group.
+ */
+@Data
+@ConfigurationProperties(prefix = "throttle")
+public class ThrottleProperties {
+
+    /**
+     * Adaptive concurrency limits per route group.
+     */
+    private Map<String, ConcurrencyLimit> concurrency = new LinkedHashMap<>();
+
+    /**
+     * Token-bucket rate limits per route group and client key.
+     */
+    private Map<String, Map<RateLimitKey, RateLimit>> rateLimit = new LinkedHashMap<>();
+
+    /**
+     * Upper bound on the number of rate-limit buckets held in memory.
+     */
+    private int maxBuckets = 100_000;
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        private int initialLimit = 50;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+
+        /**
+         * Weight of each new estimate, between 0 and 1.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * How far latency may rise over the baseline before the limit shrinks.
+         */
+        private double rttTolerance = 1.5;
+    }
+
+    /**
+     * Client attribute a rate limit is keyed by.
+     */
+    public enum RateLimitKey {
+        IP, TOKEN, USERNAME
+    }
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Maximum burst, in requests.
+         */
+        private int capacity = 20;
+
+        /**
+         * Sustained rate, in requests per second.
+         */
+        private double refillPerSecond = 10;
+    }
+}
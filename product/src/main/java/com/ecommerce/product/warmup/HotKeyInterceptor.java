@@ -0,0 +1,44 @@
+package com.ecommerce.product.warmup;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Feeds product lookups and searches into the {@link HotKeyLog}.
+ */
+public class HotKeyInterceptor implements HandlerInterceptor {
+
+    private final HotKeyLog hotKeyLog;
+
+    public HotKeyInterceptor(HotKeyLog hotKeyLog) {
+        this.hotKeyLog = hotKeyLog;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables == null ? null : variables.get("id");
+        String query = request.getParameter("query");
+        if (id != null) {
+            try {
+                hotKeyLog.recordProduct(Long.parseLong(id));
+            } catch (NumberFormatException ignored) {
+                // Not a product ID; the controller rejects it
+            }
+        } else if (query != null) {
+            hotKeyLog.recordSearch(query);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecommerce.product.warmup;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests per product ID and per search query, and persists the
+ * hottest keys to a file so the next run can warm up with them.
+ * The file is rewritten periodically and on shutdown; one key per line,
+ * {@code product <count> <id>} or {@code search <count> <query>}.
+ * Counts are halved after every save and keys that drop to zero are
+ * forgotten, so recent traffic outweighs old traffic and keys that went
+ * cold free their place under the tracked key limit. Until then, once
+ * the limit is reached, new keys are not counted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class HotKeyLog {
+
+    private static final String PRODUCT = "product";
+    private static final String SEARCH = "search";
+
+    private final Path path;
+    private final int maxTrackedKeys;
+    private final int savedProducts;
+    private final int savedSearches;
+    private final ConcurrentMap<Long, LongAdder> productHits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> searchHits = new ConcurrentHashMap<>();
+
+    public HotKeyLog(@Value("${warmup.hot-keys.path}") Path path,
+                     @Value("${warmup.hot-keys.max-tracked:100000}") int maxTrackedKeys,
+                     @Value("${warmup.products:1000}") int savedProducts,
+                     @Value("${warmup.searches:100}") int savedSearches) {
+        this.path = path;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.savedProducts = savedProducts;
+        this.savedSearches = savedSearches;
+    }
+
+    /**
+     * Count a request for a product.
+     *
+     * @param id the product ID
+     */
+    public void recordProduct(Long id) {
+        record(productHits, id);
+    }
+
+    /**
+     * Count a search request.
+     *
+     * @param query the search query
+     */
+    public void recordSearch(String query) {
+        record(searchHits, query);
+    }
+
+    /**
+     * Read the hot keys persisted by the previous run.
+     *
+     * @return the hot keys, hottest first; empty if there is no readable file
+     */
+    public HotKeys loadPrevious() {
+        if (!Files.isReadable(path)) {
+            return new HotKeys(List.of(), List.of());
+        }
+
+        List<Long> products = new ArrayList<>();
+        List<String> searches = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(" ", 3);
+                if (parts.length < 3) {
+                    continue;
+                }
+                if (PRODUCT.equals(parts[0])) {
+                    products.add(Long.parseLong(parts[2]));
+                } else if (SEARCH.equals(parts[0])) {
+                    searches.add(parts[2]);
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            log.warn("Ignoring unreadable hot key file {}: {}", path, ex.getMessage());
+            return new HotKeys(List.of(), List.of());
+        }
+        return new HotKeys(products, searches);
+    }
+
+    /**
+     * Write the hottest keys of this run, replacing the file atomically.
+     * Nothing is written before the first request, so a run that never
+     * served traffic keeps the previous run's keys.
+     */
+    @Scheduled(fixedDelayString = "${warmup.hot-keys.save-interval-ms:60000}",
+            initialDelayString = "${warmup.hot-keys.save-interval-ms:60000}")
+    @PreDestroy
+    public void save() {
+        if (productHits.isEmpty() && searchHits.isEmpty()) {
+            return;
+        }
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                write(writer, PRODUCT, productHits, savedProducts);
+                write(writer, SEARCH, searchHits, savedSearches);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not save hot keys to {}: {}", path, ex.getMessage());
+        }
+        decay(productHits);
+        decay(searchHits);
+    }
+
+    private <K> void record(ConcurrentMap<K, LongAdder> hits, K key) {
+        LongAdder counter = hits.get(key);
+        if (counter == null) {
+            if (hits.size() >= maxTrackedKeys) {
+                return;
+            }
+            counter = hits.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    // Requests counted while halving are kept; a key removed as it is hit loses that one hit
+    private static <K> void decay(ConcurrentMap<K, LongAdder> hits) {
+        hits.values().removeIf(counter -> {
+            long count = counter.sum();
+            counter.add(-(count - count / 2));
+            return count / 2 == 0;
+        });
+    }
+
+    private static <K> void write(BufferedWriter writer, String kind, Map<K, LongAdder> hits, int limit)
+            throws IOException {
+        List<Map.Entry<K, Long>> hottest = hits.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+        for (Map.Entry<K, Long> entry : hottest) {
+            String key = entry.getKey().toString();
+            if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+                continue;
+            }
+            writer.write(kind + " " + entry.getValue() + " " + key);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Hot keys of a previous run, hottest first.
+     */
+    public record HotKeys(List<Long> productIds, List<String> searchQueries) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.product.warmup;
+
+import com.ecommerce.product.controller.ProductController;
+import com.ecommerce.product.serialization.ProductJsonHttpMessageConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warms a new instance up with the previous run's hot keys before it takes traffic.
+ * The hottest products and searches are requested through ProductController
+ * a few times, which loads the data, fills the JSON cache through the
+ * converter and gets the hot paths JIT-compiled.
+ * Spring Boot reports readiness as REFUSING_TRAFFIC until all application
+ * runners have finished, so the readiness probe stays down during warm-up.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final int SEARCH_PAGE_SIZE = 20;
+    private static final String SEARCH_SORT = "sku,asc";
+
+    private final HotKeyLog hotKeyLog;
+    private final ProductController productController;
+    private final ObjectProvider<ProductJsonHttpMessageConverter> jsonConverter;
+    private final int iterations;
+    private final long maxDurationMillis;
+
+    public WarmupRunner(HotKeyLog hotKeyLog, ProductController productController,
+                        ObjectProvider<ProductJsonHttpMessageConverter> jsonConverter,
+                        @Value("${warmup.iterations:3}") int iterations,
+                        @Value("${warmup.max-duration-ms:120000}") long maxDurationMillis) {
+        this.hotKeyLog = hotKeyLog;
+        this.productController = productController;
+        this.jsonConverter = jsonConverter;
+        this.iterations = iterations;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        HotKeyLog.HotKeys hotKeys = hotKeyLog.loadPrevious();
+        if (hotKeys.productIds().isEmpty() && hotKeys.searchQueries().isEmpty()) {
+            log.info("No hot keys from a previous run, skipping warm-up");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = start + maxDurationMillis;
+        int requests = 0;
+        int failures = 0;
+        for (int i = 0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+            for (Long id : hotKeys.productIds()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                requests++;
+                failures += exercise(productController.getProductById(id));
+            }
+            for (String query : hotKeys.searchQueries()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                requests++;
+                failures += exercise(productController.searchProducts(query, 0, SEARCH_PAGE_SIZE, SEARCH_SORT));
+            }
+        }
+
+        log.info("Warm-up made {} requests for {} products and {} searches in {} ms, {} failed",
+                requests, hotKeys.productIds().size(), hotKeys.searchQueries().size(),
+                System.currentTimeMillis() - start, failures);
+    }
+
+    /**
+     * Wait for one request and write its body as JSON, discarding the output.
+     *
+     * @return 1 if the request failed, otherwise 0
+     */
+    private int exercise(CompletableFuture<? extends ResponseEntity<?>> response) {
+        try {
+            Object body = response.join().getBody();
+            ProductJsonHttpMessageConverter converter = jsonConverter.getIfAvailable();
+            if (converter != null && body != null) {
+                converter.write(body, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+            }
+            return 0;
+        } catch (RuntimeException | IOException ex) {
+            // Products deleted since the last run are expected; keep warming the rest
+            return 1;
+        }
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
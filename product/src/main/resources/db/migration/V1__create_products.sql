@@ -0,0 +1,17 @@
+-- Products catalog. Every column a list can be sorted by has an index that
+-- ends in id, the tiebreaker, so a sorted page is read in index order.
+CREATE TABLE products (
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    sku         VARCHAR(255)  NOT NULL,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000),
+    price       BIGINT        NOT NULL,
+    currency    VARCHAR(3)    NOT NULL,
+    stock       INT           NOT NULL,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku)
+);
+
+CREATE INDEX idx_products_name ON products (name, id);
+CREATE INDEX idx_products_price ON products (price, id);
+CREATE INDEX idx_products_stock ON products (stock, id);
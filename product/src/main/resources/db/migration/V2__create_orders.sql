@@ -0,0 +1,27 @@
+-- Orders placed by checkout. The idempotency key makes a retried checkout
+-- return the order it already placed; request_hash detects a key reused
+-- for a different cart. Items copy the SKU and unit price at checkout and
+-- do not reference products, so orders outlive deleted products.
+CREATE TABLE orders (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    idempotency_key VARCHAR(64)  NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    total           BIGINT       NOT NULL,
+    currency        VARCHAR(3)   NOT NULL,
+    created_at      BIGINT       NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT uk_orders_idempotency_key UNIQUE (idempotency_key)
+);
+
+CREATE TABLE order_items (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    order_id   BIGINT       NOT NULL,
+    product_id BIGINT       NOT NULL,
+    sku        VARCHAR(255) NOT NULL,
+    quantity   INT          NOT NULL,
+    unit_price BIGINT       NOT NULL,
+    line_total BIGINT       NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id),
+    -- Also indexes order_id, which loads an order's items
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
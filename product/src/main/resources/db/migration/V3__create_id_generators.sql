@@ -0,0 +1,14 @@
+-- Pooled ID blocks for orders and order items. With IDENTITY columns
+-- Hibernate must run each insert on its own to read the key back, which
+-- rules out JDBC batching; with a table generator an instance reserves 50
+-- IDs per update and a checkout batch's inserts go out as JDBC batches.
+-- next_val is the last ID of the most recently reserved block, seeded so
+-- the first block starts above the existing rows.
+CREATE TABLE id_generators (
+    name     VARCHAR(64) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    CONSTRAINT pk_id_generators PRIMARY KEY (name)
+);
+
+INSERT INTO id_generators (name, next_val) SELECT 'orders', COALESCE(MAX(id), 0) + 50 FROM orders;
+INSERT INTO id_generators (name, next_val) SELECT 'order_items', COALESCE(MAX(id), 0) + 50 FROM order_items;
@@ -0,0 +1,178 @@
+package com.ecommerce.product.cache;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TwoLevelCache. Two caches sharing one embedded remote
+ * cache and bus stand for two instances of the service.
+ */
+class TwoLevelCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmbeddedRemoteCache remote;
+    private EmbeddedInvalidationBus bus;
+    private TwoLevelCache<ProductResponse> first;
+    private TwoLevelCache<ProductResponse> second;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        remote = new EmbeddedRemoteCache(100);
+        bus = new EmbeddedInvalidationBus();
+        first = cache(remote);
+        second = cache(remote);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_LoadedOnce_ServedFromNearThenRemote() {
+        // Act
+        ProductResponse loaded = first.get("1", () -> load(1L, 50));
+        ProductResponse near = first.get("1", () -> load(1L, 50));
+        ProductResponse fromRemote = second.get("1", () -> load(1L, 50));
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertSame(loaded, near);
+        assertNotSame(loaded, fromRemote);
+        assertEquals(loaded, fromRemote);
+    }
+
+    @Test
+    void invalidate_DropsNearCopiesOnOtherInstances() {
+        // Arrange
+        first.get("1", () -> load(1L, 50));
+        second.get("1", () -> load(1L, 50));
+        List<String> invalidated = new ArrayList<>();
+        second.onInvalidation(invalidated::add);
+
+        // Act
+        first.invalidate("1");
+        ProductResponse reloaded = second.get("1", () -> load(1L, 49));
+
+        // Assert
+        assertEquals(49, reloaded.getStock());
+        assertEquals(2, loads.get());
+        assertEquals(List.of("1"), invalidated);
+    }
+
+    @Test
+    void invalidateAll_ClearsBothLevels() {
+        // Arrange
+        first.get("1", () -> load(1L, 50));
+        first.get("2", () -> load(2L, 50));
+
+        // Act
+        second.invalidateAll();
+
+        // Assert
+        assertNull(remote.get("product", "1"));
+        first.get("1", () -> load(1L, 50));
+        first.get("2", () -> load(2L, 50));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getAll_CachedKeysServed_MissesLoadedAtOnceAndCached() {
+        // Arrange
+        first.get("1", () -> load(1L, 50));
+        List<List<String>> requested = new ArrayList<>();
+
+        // Act
+        Map<String, ProductResponse> found = second.getAll(List.of("3", "1", "2", "3"), missing -> {
+            requested.add(missing);
+            return Map.of("3", load(3L, 30));
+        });
+        ProductResponse cached = first.get("3", () -> load(3L, 0));
+
+        // Assert
+        assertEquals(List.of(List.of("3", "2")), requested);
+        assertEquals(List.of("3", "1"), List.copyOf(found.keySet()));
+        assertEquals(50, found.get("1").getStock());
+        assertEquals(30, cached.getStock());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_NotCached() {
+        // Act
+        first.get("1", () -> {
+            second.invalidate("1");
+            return load(1L, 50);
+        });
+        first.get("1", () -> load(1L, 49));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_RemoteFailing_FallsBackToLoader() {
+        // Arrange
+        RemoteCache failing = new EmbeddedRemoteCache(100) {
+            @Override
+            public byte[] get(String cache, String key) {
+                throw new IllegalStateException("remote cache down");
+            }
+        };
+        TwoLevelCache<ProductResponse> cache = cache(failing);
+
+        // Act
+        ProductResponse product = cache.get("1", () -> load(1L, 50));
+
+        // Assert
+        assertEquals(1L, product.getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void put_VisibleToOtherInstancesUntilTtl() {
+        // Act
+        first.put("1", load(1L, 50), Duration.ofMinutes(1));
+        first.put("2", load(2L, 50), Duration.ZERO);
+
+        // Assert
+        assertEquals(50, second.get("1", () -> load(1L, 0)).getStock());
+        assertEquals(0, second.get("2", () -> load(2L, 0)).getStock());
+    }
+
+    @Test
+    void disabled_AlwaysLoads() {
+        // Arrange
+        TwoLevelCache<ProductResponse> cache = TwoLevelCache.disabled("product");
+
+        // Act
+        cache.get("1", () -> load(1L, 50));
+        cache.get("1", () -> load(1L, 50));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    private TwoLevelCache<ProductResponse> cache(RemoteCache remoteCache) {
+        return new TwoLevelCache<>("product", ProductResponse.class, objectMapper, remoteCache, bus,
+                100, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    private ProductResponse load(Long id, int stock) {
+        loads.incrementAndGet();
+        return ProductResponse.builder()
+                .id(id).sku("SKU-" + id).name("Product " + id).price(1999L).currency("USD").stock(stock)
+                .build();
+    }
+}
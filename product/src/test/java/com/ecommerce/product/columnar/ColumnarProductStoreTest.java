@@ -0,0 +1,271 @@
+package com.ecommerce.product.columnar;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.repository.ProductCatalogRow;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ColumnarProductStore.
+ */
+@ExtendWith(MockitoExtension.class)
+class ColumnarProductStoreTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private ColumnarProductStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarProductStore(productRepository, meterRegistry, true, 2, 60000);
+    }
+
+    @Test
+    void page_SortedByPrice_ReadsInPriceOrder() {
+        // Arrange
+        loadCatalog();
+
+        // Act
+        PagedProductResponse ascending = store.page(PageRequest.of(0, 2, Sort.by("price"))).orElseThrow();
+        PagedProductResponse descending = store.page(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "price")))
+                .orElseThrow();
+
+        // Assert
+        assertEquals(List.of("MOU-001", "KEY-001"), skus(ascending));
+        assertEquals(List.of("LAP-001", "MON-001"), skus(descending));
+        assertEquals(4L, ascending.getTotalElements());
+        assertEquals(2, ascending.getTotalPages());
+        assertFalse(ascending.getLast());
+    }
+
+    @Test
+    void page_SortWithIdTiebreak_Served() {
+        // Arrange
+        loadCatalog();
+        Sort priceThenId = Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        // Act
+        Optional<PagedProductResponse> page = store.page(PageRequest.of(0, 2, priceThenId));
+
+        // Assert
+        assertEquals(List.of("LAP-001", "MON-001"), skus(page.orElseThrow()));
+        Sort mixedDirections = Sort.by("price").and(Sort.by(Sort.Direction.DESC, "id"));
+        assertEquals(Optional.empty(), store.page(PageRequest.of(0, 2, mixedDirections)));
+    }
+
+    @Test
+    void page_SortedByName_IgnoresCase() {
+        // Arrange
+        loadCatalog();
+
+        // Act
+        PagedProductResponse page = store.page(PageRequest.of(1, 2, Sort.by("name"))).orElseThrow();
+
+        // Assert
+        assertEquals(List.of("Monitor", "mouse"), page.getContent().stream().map(ProductResponse::getName).toList());
+        assertTrue(page.getLast());
+    }
+
+    @Test
+    void page_ReturnsAllColumns() {
+        // Arrange
+        loadCatalog();
+
+        // Act
+        ProductResponse product = store.page(PageRequest.of(0, 1, Sort.by("id"))).orElseThrow().getContent().get(0);
+
+        // Assert
+        assertEquals(ProductResponse.builder()
+                .id(1L).sku("LAP-001").name("Laptop").description("Gaming laptop")
+                .price(99999L).currency("USD").stock(5)
+                .build(), product);
+        assertNull(store.page(PageRequest.of(0, 4, Sort.by("id"))).orElseThrow().getContent().get(3).getDescription());
+    }
+
+    @Test
+    void page_PastTheEnd_ReturnsEmptyContent() {
+        // Arrange
+        loadCatalog();
+
+        // Act
+        PagedProductResponse page = store.page(PageRequest.of(5, 2, Sort.by("sku"))).orElseThrow();
+
+        // Assert
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(4L, page.getTotalElements());
+    }
+
+    @Test
+    void page_UnsupportedSortOrNoSnapshot_ReturnsEmpty() {
+        // Act & Assert
+        assertEquals(Optional.empty(), store.page(PageRequest.of(0, 2, Sort.by("sku"))));
+
+        loadCatalog();
+        assertEquals(Optional.empty(), store.page(PageRequest.of(0, 2, Sort.by("description"))));
+        assertEquals(Optional.empty(), store.page(PageRequest.of(0, 2, Sort.by("price", "sku"))));
+    }
+
+    @Test
+    void page_SortedByNonAsciiName_MatchesCaseInsensitiveOrder() {
+        // Arrange
+        List<String> names = List.of("Zoo", "ähre", "apple", "Äpfel", "Ähre", "éclair", "Eclair", "zoo");
+        List<ProductCatalogRow> products = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            products.add(product(i + 1L, "SKU-" + i, names.get(i), null, 100, 1));
+        }
+        load(products.toArray(ProductCatalogRow[]::new));
+
+        // Act
+        PagedProductResponse page = store.page(PageRequest.of(0, names.size(), Sort.by("name"))).orElseThrow();
+
+        // Assert
+        List<String> expected = new ArrayList<>(names);
+        expected.sort(String.CASE_INSENSITIVE_ORDER);
+        assertEquals(expected, page.getContent().stream().map(ProductResponse::getName).toList());
+    }
+
+    @Test
+    void updateStock_PatchedInPlace_StockOrderServedAgainAfterRefresh() {
+        // Arrange
+        loadCatalog();
+
+        // Act
+        store.updateStock(Map.of(1L, 60, 99L, 1));
+        Optional<PagedProductResponse> beforeSort = store.page(PageRequest.of(0, 1, Sort.by("stock")));
+        store.refresh();
+        PagedProductResponse afterSort = store.page(PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "stock")))
+                .orElseThrow();
+
+        // Assert
+        assertEquals(Optional.empty(), beforeSort);
+        assertEquals(List.of("LAP-001", "MOU-001", "KEY-001", "MON-001"), skus(afterSort));
+        assertEquals(60, afterSort.getContent().get(0).getStock());
+        assertEquals(60, store.page(PageRequest.of(0, 1, Sort.by("id"))).orElseThrow().getContent().get(0).getStock());
+        verify(productRepository, times(1)).count();
+    }
+
+    @Test
+    void refresh_AfterMarkStale_Reloads() {
+        // Arrange
+        loadCatalog();
+        store.refresh();
+        verify(productRepository, times(1)).count();
+
+        // Act
+        store.markStale();
+        store.refresh();
+
+        // Assert
+        verify(productRepository, times(2)).count();
+    }
+
+    @Test
+    void refresh_AfterFailedLoad_RetriesAndKeepsPreviousSnapshot() {
+        // Arrange
+        loadCatalog();
+        when(productRepository.findCatalogAfter(eq(0L), any(Pageable.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(List.of(product(1L, "LAP-001", "Laptop", "Gaming laptop", 99999, 5)));
+        store.markStale();
+
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, () -> store.refresh());
+        store.updateStock(Map.of(1L, 60));
+        PagedProductResponse afterFailure = store.page(PageRequest.of(0, 4)).orElseThrow();
+        store.refresh();
+
+        // Assert
+        assertEquals(4, afterFailure.getContent().size());
+        assertEquals(60, afterFailure.getContent().get(0).getStock());
+        assertEquals(1, store.page(PageRequest.of(0, 4)).orElseThrow().getContent().size());
+        verify(productRepository, times(3)).count();
+    }
+
+    @Test
+    void updateStock_WhileReloading_NeverServesOlderStock() throws Exception {
+        // Arrange: the database holds the last committed stock
+        AtomicInteger committed = new AtomicInteger(5);
+        when(productRepository.count()).thenReturn(1L);
+        when(productRepository.findCatalogAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation ->
+                List.of(product(1L, "LAP-001", "Laptop", null, 99999, committed.get())));
+        store.load();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread loader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                store.load();
+            }
+        });
+
+        // Act & Assert: an update landing while a load swaps in its snapshot must not be undone
+        try {
+            for (int stock = 6; stock < 2000; stock++) {
+                committed.set(stock);
+                store.updateStock(Map.of(1L, stock));
+                assertEquals(stock, store.page(PageRequest.of(0, 1)).orElseThrow().getContent().get(0).getStock());
+            }
+        } finally {
+            done.set(true);
+            loader.join(5000);
+        }
+    }
+
+    private void loadCatalog() {
+        load(product(1L, "LAP-001", "Laptop", "Gaming laptop", 99999, 5),
+                product(2L, "MOU-001", "mouse", "Wireless mouse", 1999, 50),
+                product(3L, "KEY-001", "Keyboard", "Mechanical keyboard", 7900, 20),
+                product(4L, "MON-001", "Monitor", null, 24900, 8));
+    }
+
+    /**
+     * Load the products, served in batches of two as the store requests them.
+     */
+    private void load(ProductCatalogRow... products) {
+        when(productRepository.count()).thenReturn((long) products.length);
+        long cursor = 0;
+        for (int from = 0; from < products.length; from += 2) {
+            List<ProductCatalogRow> batch = List.of(products).subList(from, Math.min(products.length, from + 2));
+            when(productRepository.findCatalogAfter(eq(cursor), any(Pageable.class))).thenReturn(batch);
+            cursor = batch.get(batch.size() - 1).id();
+        }
+        if (products.length % 2 == 0) {
+            when(productRepository.findCatalogAfter(eq(cursor), any(Pageable.class))).thenReturn(List.of());
+        }
+        store.load();
+    }
+
+    private static ProductCatalogRow product(Long id, String sku, String name, String description, long price,
+                                             int stock) {
+        return new ProductCatalogRow(id, sku, name, description, price, "USD", stock);
+    }
+
+    private static List<String> skus(PagedProductResponse page) {
+        return page.getContent().stream().map(ProductResponse::getSku).toList();
+    }
+}
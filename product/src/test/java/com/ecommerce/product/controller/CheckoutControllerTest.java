@@ -0,0 +1,121 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.CheckoutItem;
+import com.ecommerce.product.dto.CheckoutRequest;
+import com.ecommerce.product.dto.OrderResponse;
+import com.ecommerce.product.service.CheckoutService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for CheckoutController.
+ */
+@WebMvcTest(CheckoutController.class)
+class CheckoutControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CheckoutService checkoutService;
+
+    private final CheckoutRequest cart = CheckoutRequest.builder()
+            .items(List.of(CheckoutItem.builder().productId(1L).quantity(2).build()))
+            .build();
+
+    private final OrderResponse order = OrderResponse.builder()
+            .id(7L).idempotencyKey("key-1").total(199998L).currency("USD").createdAt(0L).items(List.of())
+            .build();
+
+    @Test
+    void checkout_NewOrder_Returns201() throws Exception {
+        // Arrange
+        when(checkoutService.checkout(eq("key-1"), any(CheckoutRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new CheckoutService.CheckoutResult(order, false)));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cart)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.total").value(199998));
+    }
+
+    @Test
+    void checkout_Retry_Returns200() throws Exception {
+        // Arrange
+        when(checkoutService.checkout(eq("key-1"), any(CheckoutRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new CheckoutService.CheckoutResult(order, true)));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cart)))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
+    @Test
+    void checkout_OutOfStock_Returns409() throws Exception {
+        // Arrange
+        when(checkoutService.checkout(eq("key-1"), any(CheckoutRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new ResponseStatusException(HttpStatus.CONFLICT, "Not enough stock for product with ID 1")));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cart)))
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Not enough stock for product with ID 1"));
+    }
+
+    @Test
+    void checkout_EmptyCart_Returns400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/checkout")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CheckoutRequest.builder().items(List.of()).build())))
+                .andExpect(status().isBadRequest());
+
+        verify(checkoutService, never()).checkout(any(), any());
+    }
+}
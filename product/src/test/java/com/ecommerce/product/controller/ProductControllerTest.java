@@ -5,6 +5,7 @@ import com.ecommerce.product.dto.PagedProductResponse;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +14,15 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,7 +53,8 @@ class ProductControllerTest {
                 .sku("LAP-001")
                 .name("Laptop")
                 .description("High-performance laptop")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
 
@@ -55,7 +62,8 @@ class ProductControllerTest {
                 .sku("LAP-001")
                 .name("Laptop")
                 .description("High-performance laptop")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
     }
@@ -74,7 +82,8 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.sku").value("LAP-001"))
                 .andExpect(jsonPath("$.name").value("Laptop"))
-                .andExpect(jsonPath("$.price").value(999.99))
+                .andExpect(jsonPath("$.price").value(99999))
+                .andExpect(jsonPath("$.currency").value("USD"))
                 .andExpect(jsonPath("$.stock").value(50));
 
         verify(productService).createProduct(any(CreateProductRequest.class));
@@ -85,7 +94,8 @@ class ProductControllerTest {
         // Arrange
         CreateProductRequest invalidRequest = CreateProductRequest.builder()
                 .sku("LAP-001")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
 
@@ -104,7 +114,8 @@ class ProductControllerTest {
         CreateProductRequest invalidRequest = CreateProductRequest.builder()
                 .sku("LAP-001")
                 .name("Laptop")
-                .price(-10.0)
+                .price(-1000L)
+                .currency("USD")
                 .stock(50)
                 .build();
 
@@ -117,6 +128,21 @@ class ProductControllerTest {
         verify(productService, never()).createProduct(any(CreateProductRequest.class));
     }
 
+    @Test
+    void createProduct_FractionalPrice_BadRequest() throws Exception {
+        // Arrange
+        String body = "{\"sku\":\"LAP-001\",\"name\":\"Laptop\",\"price\":999.99,\"stock\":50}";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed request body"));
+
+        verify(productService, never()).createProduct(any(CreateProductRequest.class));
+    }
+
     @Test
     void createProduct_DuplicateSku() throws Exception {
         // Arrange
@@ -138,8 +164,13 @@ class ProductControllerTest {
         // Arrange
         when(productService.getProductById(1L)).thenReturn(testProductResponse);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products/1"))
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.sku").value("LAP-001"))
@@ -148,14 +179,38 @@ class ProductControllerTest {
         verify(productService).getProductById(1L);
     }
 
+    @Test
+    void getProductById_Smile() throws Exception {
+        // Arrange
+        when(productService.getProductById(1L)).thenReturn(testProductResponse);
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/1").accept(smile))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(testProductResponse, new SmileMapper().readValue(body, ProductResponse.class));
+    }
+
     @Test
     void getProductById_NotFound() throws Exception {
         // Arrange
         when(productService.getProductById(999L))
                 .thenThrow(new IllegalArgumentException("Product with ID 999 not found"));
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products/999"))
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Product with ID 999 not found"));
 
@@ -170,7 +225,8 @@ class ProductControllerTest {
                 .sku("MOU-001")
                 .name("Mouse")
                 .description("Wireless mouse")
-                .price(29.99)
+                .price(2999L)
+                .currency("USD")
                 .stock(100)
                 .build();
 
@@ -185,11 +241,16 @@ class ProductControllerTest {
 
         when(productService.getAllProducts(any(Pageable.class))).thenReturn(pagedResponse);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products")
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products")
                 .param("page", "0")
                 .param("size", "20")
                 .param("sort", "sku,asc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content.length()").value(2))
@@ -216,8 +277,13 @@ class ProductControllerTest {
 
         when(productService.getAllProducts(any(Pageable.class))).thenReturn(pagedResponse);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products"))
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.page").value(0))
@@ -226,6 +292,27 @@ class ProductControllerTest {
         verify(productService).getAllProducts(any(Pageable.class));
     }
 
+    @Test
+    void getAllProducts_UnsortableColumn_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/products").param("sort", "description,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("Cannot sort by 'description'; sortable columns are id, sku, name, price, stock"));
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_PageTooLarge_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/products").param("size", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Page size must be between 1 and 100"));
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+    }
+
     @Test
     void searchProducts_Success() throws Exception {
         // Arrange
@@ -241,12 +328,17 @@ class ProductControllerTest {
         when(productService.searchProducts(anyString(), any(Pageable.class)))
                 .thenReturn(pagedResponse);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products/search")
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/search")
                 .param("query", "lap")
                 .param("page", "0")
                 .param("size", "20")
                 .param("sort", "name,asc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content.length()").value(1))
@@ -271,9 +363,14 @@ class ProductControllerTest {
         when(productService.searchProducts(anyString(), any(Pageable.class)))
                 .thenReturn(emptyResponse);
 
-        // Act & Assert
-        mockMvc.perform(get("/api/products/search")
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/search")
                 .param("query", "nonexistent"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content.length()").value(0))
@@ -281,4 +378,51 @@ class ProductControllerTest {
 
         verify(productService).searchProducts(eq("nonexistent"), any(Pageable.class));
     }
+
+    @Test
+    void getProductsByIds_ReturnsFoundProducts() throws Exception {
+        // Arrange
+        ProductResponse product2 = ProductResponse.builder()
+                .id(2L)
+                .sku("MOU-001")
+                .name("Mouse")
+                .price(2999L)
+                .currency("USD")
+                .stock(100)
+                .build();
+
+        when(productService.getProductsByIds(List.of(2L, 999L, 1L, 2L)))
+                .thenReturn(List.of(product2, testProductResponse));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/products/batch")
+                .param("ids", "2,999,1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].sku").value("MOU-001"))
+                .andExpect(jsonPath("$[1].sku").value("LAP-001"));
+
+        verify(productService).getProductsByIds(List.of(2L, 999L, 1L, 2L));
+    }
+
+    @Test
+    void getProductsByIds_TooManyIds() throws Exception {
+        // Arrange
+        List<String> ids = LongStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf)
+                .toList();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/batch")
+                .param("ids", String.join(",", ids)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At most 100 IDs can be requested at once"));
+
+        verify(productService, never()).getProductsByIds(anyList());
+    }
 }
@@ -0,0 +1,139 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.entity.ProductEntity;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for ReactiveProductController.
+ * JDBC and R2DBC point at the same in-memory database, so rows written
+ * through JPA are read back through R2DBC.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa"
+})
+@AutoConfigureMockMvc
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ProductEntity laptop;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        laptop = productRepository.save(ProductEntity.builder()
+                .sku("LAP-001").name("Gaming Laptop").description("High-performance laptop")
+                .price(99999L).currency("USD").stock(50).build());
+        productRepository.save(ProductEntity.builder()
+                .sku("MOU-001").name("Wireless Mouse").description("Ergonomic mouse")
+                .price(2999L).currency("USD").stock(200).build());
+    }
+
+    @Test
+    void getProductById_Success() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/reactive/products/{id}", laptop.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(laptop.getId()))
+                .andExpect(jsonPath("$.sku").value("LAP-001"))
+                .andExpect(jsonPath("$.price").value(99999))
+                .andExpect(jsonPath("$.currency").value("USD"))
+                .andExpect(jsonPath("$.stock").value(50));
+    }
+
+    @Test
+    void getProductById_NotFound() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/reactive/products/{id}", 999999))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Product with ID 999999 not found"));
+    }
+
+    @Test
+    void getAllProducts_Success() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/reactive/products")
+                        .param("page", "0")
+                        .param("size", "1")
+                        .param("sort", "sku,desc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].sku").value("MOU-001"))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void searchProducts_Success() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/reactive/products/search").param("query", "LAPTOP"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Gaming Laptop"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void searchProducts_WildcardQuery_MatchesBlockingSearch() throws Exception {
+        // Arrange: '_' matches any one character, as in /api/products/search
+        MvcResult blocking = mockMvc.perform(get("/api/products/search").param("query", "l_ptop"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(blocking))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].sku").value("LAP-001"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/reactive/products/search").param("query", "l_ptop"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].sku").value("LAP-001"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+}
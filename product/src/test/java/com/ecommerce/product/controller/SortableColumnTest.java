@@ -0,0 +1,51 @@
+package com.ecommerce.product.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortableColumn.
+ */
+class SortableColumnTest {
+
+    @Test
+    void pageRequest_SortsByColumnThenId() {
+        // Act
+        Pageable pageable = SortableColumn.pageRequest(2, 50, "price,desc");
+
+        // Assert
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(50, pageable.getPageSize());
+        assertEquals(Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")), pageable.getSort());
+    }
+
+    @Test
+    void pageRequest_ReusesPrebuiltSort() {
+        // Act & Assert
+        assertSame(SortableColumn.parse("name,asc"), SortableColumn.parse("name"));
+        assertSame(SortableColumn.parse("name,desc"), SortableColumn.parse(" NAME , DESC "));
+        assertEquals(Sort.by("id"), SortableColumn.parse("id"));
+    }
+
+    @Test
+    void pageRequest_UnsortableColumn_ThrowsException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SortableColumn.pageRequest(0, 20, "description,asc"));
+
+        assertEquals("Cannot sort by 'description'; sortable columns are id, sku, name, price, stock",
+                exception.getMessage());
+    }
+
+    @Test
+    void pageRequest_InvalidDirectionOrSize_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SortableColumn.pageRequest(0, 20, "sku,up"));
+        assertThrows(IllegalArgumentException.class, () -> SortableColumn.pageRequest(0, 101, "sku,asc"));
+        assertThrows(IllegalArgumentException.class, () -> SortableColumn.pageRequest(0, 0, "sku,asc"));
+        assertThrows(IllegalArgumentException.class, () -> SortableColumn.pageRequest(-1, 20, "sku,asc"));
+    }
+}
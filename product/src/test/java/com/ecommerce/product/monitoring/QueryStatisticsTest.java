@@ -0,0 +1,100 @@
+package com.ecommerce.product.monitoring;
+
+import com.ecommerce.product.entity.ProductEntity;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for statement statistics and slow-query plan capture.
+ */
+@SpringBootTest(properties = {
+        "monitoring.slow-query.threshold-ms=0",
+        "management.endpoints.web.exposure.include=queries"
+})
+@AutoConfigureMockMvc
+class QueryStatisticsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.save(ProductEntity.builder()
+                .sku("LAP-001")
+                .name("Laptop")
+                .description("High-performance laptop")
+                .price(99999L)
+                .currency("USD")
+                .stock(50)
+                .build());
+        queryStatistics.reset();
+    }
+
+    @Test
+    void fingerprint_CollapsesLiteralsAndInLists() {
+        assertEquals("select * from products where id in (?+) and sku=? and price>?",
+                QueryStatistics.fingerprint("SELECT *  FROM products\n WHERE id IN (?, ?, ?) AND sku='A''1' AND price>10.5"));
+    }
+
+    @Test
+    void searchByName_RecordsCountsRowsAndPlan() throws Exception {
+        // Act
+        productRepository.searchByName("lap", PageRequest.of(0, 20));
+
+        // Assert
+        QueryStatisticsSnapshot search = queryStatistics.snapshot().stream()
+                .filter(snapshot -> snapshot.getFingerprint().contains("like"))
+                .filter(snapshot -> !snapshot.getFingerprint().contains("count("))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, search.getCount());
+        assertEquals(1L, search.getSlowCount());
+        assertEquals(1L, search.getRows());
+        assertTrue(search.getMaxMillis() > 0);
+
+        // Plans are captured in the background
+        long deadline = System.currentTimeMillis() + 5000;
+        while (currentPlan(search.getFingerprint()) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNotNull(currentPlan(search.getFingerprint()));
+    }
+
+    @Test
+    void queriesEndpoint_ListsStatements() throws Exception {
+        // Arrange
+        productRepository.findBySku("LAP-001");
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("where pe1_0.sku=?")));
+    }
+
+    private String currentPlan(String fingerprint) {
+        return queryStatistics.snapshot().stream()
+                .filter(snapshot -> snapshot.getFingerprint().equals(fingerprint))
+                .findFirst()
+                .map(QueryStatisticsSnapshot::getPlan)
+                .orElse(null);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,7 +36,8 @@ class ProductRepositoryTest {
                 .sku("LAP-001")
                 .name("Laptop")
                 .description("High-performance laptop")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
 
@@ -43,7 +45,8 @@ class ProductRepositoryTest {
                 .sku("MOU-001")
                 .name("Mouse")
                 .description("Wireless mouse")
-                .price(29.99)
+                .price(2999L)
+                .currency("USD")
                 .stock(100)
                 .build();
 
@@ -173,7 +176,8 @@ class ProductRepositoryTest {
                 .sku("KEY-001")
                 .name("Wireless Keyboard")
                 .description("Ergonomic keyboard")
-                .price(79.99)
+                .price(7999L)
+                .currency("USD")
                 .stock(75)
                 .build();
         productRepository.save(product3);
@@ -209,7 +213,8 @@ class ProductRepositoryTest {
                 .sku("KEY-001")
                 .name("Keyboard")
                 .description("Mechanical keyboard")
-                .price(149.99)
+                .price(14999L)
+                .currency("USD")
                 .stock(30)
                 .build();
 
@@ -234,4 +239,50 @@ class ProductRepositoryTest {
         Optional<ProductEntity> result = productRepository.findById(productId);
         assertFalse(result.isPresent());
     }
+
+    @Test
+    void findNamesAfter_ReturnsNewerProductsInIdOrder() {
+        // Act
+        List<ProductNameView> all = productRepository.findNamesAfter(0L, PageRequest.ofSize(10));
+        List<ProductNameView> newer = productRepository.findNamesAfter(testProduct1.getId(), PageRequest.ofSize(10));
+
+        // Assert
+        assertEquals(List.of("Laptop", "Mouse"), all.stream().map(ProductNameView::getName).toList());
+        assertEquals(List.of(testProduct2.getId()), newer.stream().map(ProductNameView::getId).toList());
+    }
+
+    @Test
+    void findCatalogAfter_ReturnsNewerRowsInIdOrder() {
+        // Act
+        List<ProductCatalogRow> all = productRepository.findCatalogAfter(0L, PageRequest.ofSize(10));
+        List<ProductCatalogRow> newer = productRepository.findCatalogAfter(testProduct1.getId(), PageRequest.ofSize(1));
+
+        // Assert
+        assertEquals(List.of("Laptop", "Mouse"), all.stream().map(ProductCatalogRow::name).toList());
+        assertEquals(new ProductCatalogRow(testProduct2.getId(), testProduct2.getSku(), testProduct2.getName(),
+                testProduct2.getDescription(), testProduct2.getPrice(), testProduct2.getCurrency(),
+                testProduct2.getStock()), newer.get(0));
+        assertEquals(1, newer.size());
+    }
+
+    @Test
+    void searchByNameAmongIds_WithPagination() {
+        // Act
+        Page<ProductEntity> result = productRepository.searchByNameAmongIds(
+                List.of(testProduct2.getId(), 999L), "mou", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Mouse", result.getContent().get(0).getName());
+    }
+
+    @Test
+    void searchByNameAmongIds_IdNowBelongsToOtherProduct_LeftOut() {
+        // Act: an index built against another database still maps "lap" to the mouse's ID
+        Page<ProductEntity> result = productRepository.searchByNameAmongIds(
+                List.of(testProduct2.getId()), "lap", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(0, result.getTotalElements());
+    }
 }
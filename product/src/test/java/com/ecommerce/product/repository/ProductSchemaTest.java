@@ -0,0 +1,81 @@
+package com.ecommerce.product.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the migrated schema serves the hot product and order queries from indexes,
+ * by reading H2's query plans in MySQL compatibility mode.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProductSchemaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findBySku_UsesUniqueIndex() {
+        // Act
+        String plan = explain("select * from products where sku = 'LAP-001'");
+
+        // Assert
+        assertTrue(plan.contains("uk_products_sku"), plan);
+    }
+
+    @Test
+    void sortedPages_ReadInIndexOrder() {
+        // Act & Assert
+        for (String column : new String[] {"name", "price", "stock"}) {
+            String ascending = explain("select * from products order by " + column + ", id limit 20 offset 40");
+            String descending = explain("select * from products order by " + column + " desc, id desc limit 20");
+
+            assertTrue(ascending.contains("idx_products_" + column + " */"), ascending);
+            assertTrue(ascending.contains("/* index sorted */"), ascending);
+            assertTrue(descending.contains("idx_products_" + column + " */"), descending);
+            assertTrue(descending.contains("/* index sorted */"), descending);
+        }
+    }
+
+    @Test
+    void idLookupsAndKeysetScan_UsePrimaryKey() {
+        // Act
+        String byIds = explain("select * from products where id in (1, 2, 3)");
+        String keyset = explain("select * from products where id > 10 order by id limit 5000");
+
+        // Assert
+        assertTrue(byIds.contains("PRIMARY_KEY"), byIds);
+        assertTrue(keyset.contains("PRIMARY_KEY"), keyset);
+        assertTrue(keyset.contains("/* index sorted */"), keyset);
+    }
+
+    @Test
+    void checkoutLookups_UseIndexes() {
+        // Act
+        String byKey = explain("select * from orders where idempotency_key = 'key-1'");
+        String items = explain("select * from order_items where order_id = 1");
+
+        // Assert
+        assertTrue(byKey.contains("uk_orders_idempotency_key"), byKey);
+        assertTrue(items.contains("fk_order_items_order"), items);
+    }
+
+    @Test
+    void schema_AppliedByMigration() {
+        // Act
+        String version = jdbcTemplate.queryForObject(
+                "select max(version) from flyway_schema_history where success = true", String.class);
+
+        // Assert
+        assertEquals("3", version);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level and query caches. Every
+ * repository call commits on its own, as in the service.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private ProductEntity laptop;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        laptop = productRepository.save(product("LAP-001"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void findById_SecondLookup_ServedFromCache() {
+        // Arrange
+        productRepository.findById(laptop.getId()).orElseThrow();
+        statistics.clear();
+
+        // Act
+        ProductEntity cached = productRepository.findById(laptop.getId()).orElseThrow();
+
+        // Assert
+        assertEquals("LAP-001", cached.getSku());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(ProductEntity.CACHE_REGION).getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findById_AfterUpdate_ReturnsNewState() {
+        // Arrange
+        laptop.setStock(7);
+        productRepository.save(laptop);
+
+        // Act
+        ProductEntity cached = productRepository.findById(laptop.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(7, cached.getStock());
+    }
+
+    @Test
+    void findBySku_RepeatedUntilTableChanges_ServedFromQueryCache() {
+        // Act
+        productRepository.findBySku("LAP-001").orElseThrow();
+        productRepository.findBySku("LAP-001").orElseThrow();
+        productRepository.save(product("MOU-001"));
+        productRepository.findBySku("LAP-001").orElseThrow();
+
+        // Assert
+        assertEquals(1, statistics.getQueryRegionStatistics(ProductRepository.SKU_CACHE_REGION).getHitCount());
+        assertEquals(2, statistics.getQueryRegionStatistics(ProductRepository.SKU_CACHE_REGION).getMissCount());
+    }
+
+    @Test
+    void findCatalogAfter_LeavesProductRegionAlone() {
+        // Act
+        productRepository.findCatalogAfter(0L, PageRequest.ofSize(10));
+
+        // Assert
+        assertEquals(0, statistics.getDomainDataRegionStatistics(ProductEntity.CACHE_REGION).getPutCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private static ProductEntity product(String sku) {
+        return ProductEntity.builder()
+                .sku(sku).name("Product " + sku).price(1999L).currency("USD").stock(10)
+                .build();
+    }
+}
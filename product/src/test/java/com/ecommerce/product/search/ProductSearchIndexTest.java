@@ -0,0 +1,130 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.repository.ProductNameView;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductSearchIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Test
+    void load_NoSegment_IndexesCatalogAndWritesSegment() {
+        // Arrange
+        when(productRepository.findNamesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop"), product(2L, "Wireless Mouse")));
+        ProductSearchIndex index = index();
+
+        // Act
+        index.load();
+
+        // Assert
+        assertEquals(Optional.of(List.of(1L)), index.matchingIds("LAPTOP"));
+        assertTrue(Files.exists(dir.resolve("segment-1.seg")));
+    }
+
+    @Test
+    void load_ExistingSegment_ReplaysOnlyNewerProducts() {
+        // Arrange
+        when(productRepository.findNamesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop"), product(2L, "Wireless Mouse")));
+        index().load();
+        when(productRepository.findNamesAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(product(3L, "Laptop Stand")));
+        ProductSearchIndex restarted = index();
+
+        // Act
+        restarted.load();
+
+        // Assert
+        verify(productRepository).findNamesAfter(eq(2L), any(Pageable.class));
+        assertEquals(Optional.of(List.of(1L, 3L)), restarted.matchingIds("laptop"));
+    }
+
+    @Test
+    void compact_MergesDeltaIntoNextGeneration() {
+        // Arrange
+        when(productRepository.findNamesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "Gaming Laptop")));
+        ProductSearchIndex index = index();
+        index.load();
+        index.add(2L, "Laptop Bag");
+
+        // Act
+        index.compact();
+
+        // Assert
+        assertTrue(Files.exists(dir.resolve("segment-2.seg")));
+        assertFalse(Files.exists(dir.resolve("segment-1.seg")));
+        assertEquals(Optional.of(List.of(1L, 2L)), index.matchingIds("laptop"));
+    }
+
+    @Test
+    void matchingIds_QueriesTheIndexCannotAnswer_ReturnEmpty() {
+        // Arrange
+        when(productRepository.findNamesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(1L, "USB Cable A"), product(2L, "USB Cable B")));
+        ProductSearchIndex index = new ProductSearchIndex(productRepository, meterRegistry,
+                true, dir, 100, 100, 1000, 1);
+        index.load();
+
+        // Act & Assert
+        assertTrue(index.matchingIds("us").isEmpty());
+        assertTrue(index.matchingIds("usb%a").isEmpty());
+        assertTrue(index.matchingIds("cable").isEmpty());
+        assertEquals(Optional.of(List.of(2L)), index.matchingIds("cable b"));
+    }
+
+    @Test
+    void matchingIds_BeforeLoad_ReturnsEmpty() {
+        // Act & Assert
+        assertTrue(index().matchingIds("laptop").isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    private ProductSearchIndex index() {
+        return new ProductSearchIndex(productRepository, meterRegistry, true, dir, 100, 100, 1000, 1000);
+    }
+
+    private static ProductNameView product(Long id, String name) {
+        return new ProductNameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
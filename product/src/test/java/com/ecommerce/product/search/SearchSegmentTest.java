@@ -0,0 +1,105 @@
+package com.ecommerce.product.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchSegment.
+ */
+class SearchSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeAndOpen_FindsSubstringMatches() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment-1.seg");
+        SearchSegment.write(file, 1, names(Map.of(
+                1L, "gaming laptop",
+                2L, "laptop sleeve",
+                5L, "wireless mouse",
+                9L, "café crème")));
+
+        // Act
+        SearchSegment segment = SearchSegment.open(file);
+
+        // Assert
+        assertEquals(1, segment.generation());
+        assertEquals(9L, segment.highWaterId());
+        assertEquals(4, segment.documents());
+        assertArrayEquals(new long[]{1L, 2L}, segment.search("laptop", 10));
+        assertArrayEquals(new long[]{1L}, segment.search("ng lap", 10));
+        assertArrayEquals(new long[]{9L}, segment.search("fé cr", 10));
+        assertArrayEquals(new long[0], segment.search("keyboard", 10));
+        assertTrue(segment.contains(5L));
+        assertFalse(segment.contains(6L));
+    }
+
+    @Test
+    void search_TrigramsInWrongOrder_NotMatched() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment-1.seg");
+        SearchSegment.write(file, 1, names(Map.of(1L, "abcd xbcy")));
+
+        // Act
+        long[] matches = SearchSegment.open(file).search("abcy", 10);
+
+        // Assert
+        assertEquals(0, matches.length);
+    }
+
+    @Test
+    void search_MoreMatchesThanLimit_ReturnsLimitPlusOne() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment-1.seg");
+        TreeMap<Long, String> names = new TreeMap<>();
+        for (long id = 1; id <= 50; id++) {
+            names.put(id, "usb cable " + id);
+        }
+        SearchSegment.write(file, 1, names);
+
+        // Act
+        long[] matches = SearchSegment.open(file).search("cable", 10);
+
+        // Assert
+        assertEquals(11, matches.length);
+    }
+
+    @Test
+    void forEach_ReturnsAllDocumentsInIdOrder() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment-1.seg");
+        TreeMap<Long, String> names = names(Map.of(3L, "monitor", 1L, "ab", 2L, ""));
+        SearchSegment.write(file, 1, names);
+
+        // Act
+        TreeMap<Long, String> read = new TreeMap<>();
+        SearchSegment.open(file).forEach(read::put);
+
+        // Assert
+        assertEquals(names, read);
+    }
+
+    @Test
+    void open_NotASegment_Throws() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment-1.seg");
+        Files.writeString(file, "not a segment file at all, just some text");
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> SearchSegment.open(file));
+    }
+
+    private static TreeMap<Long, String> names(Map<Long, String> names) {
+        return new TreeMap<>(names);
+    }
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.product.serialization;
+
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductJsonHttpMessageConverter.
+ */
+class ProductJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ProductJsonHttpMessageConverter converter;
+    private ProductResponse laptop;
+
+    @BeforeEach
+    void setUp() {
+        converter = converter(DataSize.ofKilobytes(2));
+        laptop = ProductResponse.builder()
+                .id(1L)
+                .sku("LAP-001")
+                .name("Laptop \"Pro\" ü")
+                .price(99999L)
+                .currency("USD")
+                .stock(50)
+                .build();
+    }
+
+    @Test
+    void write_Product_MatchesJackson() throws Exception {
+        // Act
+        MockHttpOutputMessage output = write(laptop);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(laptop), output.getBodyAsString());
+        assertEquals(output.getBodyAsBytes().length, output.getHeaders().getContentLength());
+    }
+
+    @Test
+    void write_Page_MatchesJackson() throws Exception {
+        // Arrange
+        ProductResponse mouse = ProductResponse.builder()
+                .id(2L).sku("MOU-001").name("Mouse").description("Wireless mouse")
+                .price(2999L).currency("USD").stock(100).build();
+        PagedProductResponse page = PagedProductResponse.builder()
+                .content(Arrays.asList(laptop, mouse))
+                .page(0).size(20).totalElements(2L).totalPages(1).last(true)
+                .build();
+        PagedProductResponse empty = PagedProductResponse.builder()
+                .content(Arrays.asList())
+                .page(3).size(20).totalElements(0L).totalPages(0).last(true)
+                .build();
+
+        // Act
+        MockHttpOutputMessage pageOutput = write(page);
+        MockHttpOutputMessage emptyOutput = write(empty);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(page), pageOutput.getBodyAsString());
+        assertEquals(pageOutput.getBodyAsBytes().length, pageOutput.getHeaders().getContentLength());
+        assertEquals(objectMapper.writeValueAsString(empty), emptyOutput.getBodyAsString());
+    }
+
+    @Test
+    void encode_UnchangedProduct_ReusesBytes() throws Exception {
+        // Arrange
+        ProductJsonCache cache = converter.getCache();
+        byte[] first = cache.encode(laptop);
+
+        // Act
+        ProductResponse reloaded = ProductResponse.builder()
+                .id(1L).sku("LAP-001").name("Laptop \"Pro\" ü").price(99999L).currency("USD").stock(50).build();
+        byte[] second = cache.encode(reloaded);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void encode_ChangedProduct_Reencodes() throws Exception {
+        // Arrange
+        ProductJsonCache cache = converter.getCache();
+        cache.encode(laptop);
+
+        // Act
+        laptop.setStock(49);
+        byte[] json = cache.encode(laptop);
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(laptop), new String(json, StandardCharsets.UTF_8));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void encode_MoreProductsThanEntries_StaysBoundedAndKeepsCaching() throws Exception {
+        // Arrange
+        ProductJsonCache cache = converter.getCache();
+
+        // Act
+        for (long id = 1; id <= 1000; id++) {
+            cache.encode(ProductResponse.builder().id(id).sku("SKU-" + id).price(100L).currency("USD").build());
+        }
+        ProductResponse latest = ProductResponse.builder().id(1000L).sku("SKU-1000").price(100L).currency("USD").build();
+        cache.encode(latest);
+
+        // Assert
+        assertTrue(cache.size() <= 100, "entries: " + cache.size());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void canReadAndWrite_WritesJsonOnly() {
+        // Act & Assert
+        assertFalse(converter.canRead(ProductResponse.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(ProductResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(ProductResponse.class, MediaType.APPLICATION_XML));
+    }
+
+    @Test
+    void write_LargePage_GzipCompressedOnceAndReused() throws Exception {
+        // Arrange
+        converter = converter(DataSize.ofBytes(100));
+        PagedProductResponse page = PagedProductResponse.builder()
+                .content(Arrays.asList(laptop))
+                .page(0).size(20).totalElements(1L).totalPages(1).last(true)
+                .build();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            // Act
+            MockHttpOutputMessage first = write(page);
+            MockHttpOutputMessage second = write(page);
+
+            // Assert
+            assertEquals("gzip", first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            assertEquals(HttpHeaders.ACCEPT_ENCODING, first.getHeaders().getFirst(HttpHeaders.VARY));
+            assertEquals(first.getBodyAsBytes().length, first.getHeaders().getContentLength());
+            assertEquals(objectMapper.writeValueAsString(page), gunzip(first.getBodyAsBytes()));
+            assertArrayEquals(first.getBodyAsBytes(), second.getBodyAsBytes());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void write_SmallPageOrNoGzip_Uncompressed() throws Exception {
+        // Arrange
+        PagedProductResponse page = PagedProductResponse.builder()
+                .content(Arrays.asList(laptop))
+                .page(0).size(20).totalElements(1L).totalPages(1).last(true)
+                .build();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            // Act
+            MockHttpOutputMessage belowThreshold = write(page);
+            converter = converter(DataSize.ofBytes(100));
+            MockHttpOutputMessage gzipRefused = write(page);
+
+            // Assert
+            assertNull(belowThreshold.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            assertNull(belowThreshold.getHeaders().getFirst(HttpHeaders.VARY));
+            assertNull(gzipRefused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            assertEquals(objectMapper.writeValueAsString(page), gzipRefused.getBodyAsString());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void write_ExplicitGzipEntry_TakesPrecedenceOverWildcard() throws Exception {
+        // Arrange
+        converter = converter(DataSize.ofBytes(100));
+        PagedProductResponse page = PagedProductResponse.builder()
+                .content(Arrays.asList(laptop))
+                .page(0).size(20).totalElements(1L).totalPages(1).last(true)
+                .build();
+
+        // Act
+        MockHttpOutputMessage gzipAccepted = writeAccepting(page, "*;q=0, gzip");
+        MockHttpOutputMessage gzipRefused = writeAccepting(page, "*, gzip;q=0");
+        MockHttpOutputMessage wildcardOnly = writeAccepting(page, "br, *;q=0.5");
+
+        // Assert
+        assertEquals("gzip", gzipAccepted.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(gzipRefused.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", wildcardOnly.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private MockHttpOutputMessage writeAccepting(PagedProductResponse page, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return write(page);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private ProductJsonHttpMessageConverter converter(DataSize compressionMinSize) {
+        return new ProductJsonHttpMessageConverter(objectMapper,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 100, 10, true, compressionMinSize);
+    }
+
+    private static String gunzip(byte[] compressed) throws Exception {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private MockHttpOutputMessage write(Object value) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_JSON, output);
+        return output;
+    }
+}
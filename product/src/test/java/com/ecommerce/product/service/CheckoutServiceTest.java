@@ -0,0 +1,279 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.cache.TwoLevelCache;
+import com.ecommerce.product.dto.CheckoutItem;
+import com.ecommerce.product.dto.CheckoutRequest;
+import com.ecommerce.product.dto.OrderResponse;
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.entity.OrderEntity;
+import com.ecommerce.product.entity.ProductEntity;
+import com.ecommerce.product.monitoring.QueryStatistics;
+import com.ecommerce.product.monitoring.QueryStatisticsSnapshot;
+import com.ecommerce.product.repository.OrderRepository;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Integration tests for CheckoutService against the migrated schema.
+ */
+@SpringBootTest(properties = "checkout.batch.max-wait-ms=50")
+class CheckoutServiceTest {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TwoLevelCache<ProductResponse> productCache;
+
+    @Autowired
+    private TwoLevelCache<PagedProductResponse> searchCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoSpyBean
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    private ProductEntity laptop;
+    private ProductEntity mouse;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        laptop = productRepository.save(product("LAP-001", 99999, 5));
+        mouse = productRepository.save(product("MOU-001", 1999, 50));
+        // Writes through the repository bypass the two-level caches
+        productCache.invalidateAll();
+        searchCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void checkout_Success_ReservesStockAndComputesTotal() throws Exception {
+        // Act
+        CheckoutService.CheckoutResult result = checkoutService.checkout("key-1",
+                cart(item(laptop, 2), item(mouse, 3), item(laptop, 1))).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        OrderResponse order = result.order();
+        assertFalse(result.replayed());
+        assertNotNull(order.getId());
+        assertEquals(3 * 99999L + 3 * 1999L, order.getTotal());
+        assertEquals("USD", order.getCurrency());
+        assertEquals(List.of("LAP-001", "MOU-001"), order.getItems().stream().map(i -> i.getSku()).toList());
+        assertEquals(3, order.getItems().get(0).getQuantity());
+        assertEquals(3 * 99999L, order.getItems().get(0).getLineTotal());
+        assertEquals(2, stockOf(laptop));
+        assertEquals(47, stockOf(mouse));
+    }
+
+    @Test
+    void checkout_SeveralItems_OrderAndItemInsertsJdbcBatched() throws Exception {
+        // Arrange
+        queryStatistics.reset();
+
+        // Act
+        checkoutService.checkout("key-1", cart(item(laptop, 1), item(mouse, 2))).get(5, TimeUnit.SECONDS);
+
+        // Assert: one executeBatch per table rather than one execute per row
+        assertEquals(1L, executions("insert into orders "));
+        assertEquals(1L, executions("insert into order_items "));
+    }
+
+    @Test
+    void checkout_RetryWithSameKey_ReturnsPlacedOrderWithoutReservingAgain() throws Exception {
+        // Arrange
+        OrderResponse placed = checkoutService.checkout("key-1", cart(item(laptop, 1)))
+                .get(5, TimeUnit.SECONDS).order();
+
+        // Act
+        CheckoutService.CheckoutResult retried = checkoutService.checkout("key-1", cart(item(laptop, 1)))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(retried.replayed());
+        assertEquals(placed, retried.order());
+        assertEquals(4, stockOf(laptop));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void checkout_SameKeyInOneBatch_PlacesOneOrder() throws Exception {
+        // Act
+        CompletableFuture<CheckoutService.CheckoutResult> first = checkoutService.checkout("key-1", cart(item(laptop, 1)));
+        CompletableFuture<CheckoutService.CheckoutResult> second = checkoutService.checkout("key-1", cart(item(laptop, 1)));
+
+        // Assert
+        assertEquals(first.get(5, TimeUnit.SECONDS).order().getId(), second.get(5, TimeUnit.SECONDS).order().getId());
+        assertEquals(4, stockOf(laptop));
+    }
+
+    @Test
+    void checkout_ProductAndSearchCached_CachesShowReservedStock() throws Exception {
+        // Arrange
+        assertEquals(5, productService.getProductById(laptop.getId()).getStock());
+        assertEquals(5, productService.searchProducts("LAP", PageRequest.of(0, 20)).getContent().get(0).getStock());
+
+        // Act
+        checkoutService.checkout("key-1", cart(item(laptop, 2))).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(3, productService.getProductById(laptop.getId()).getStock());
+        assertEquals(3, productService.searchProducts("LAP", PageRequest.of(0, 20)).getContent().get(0).getStock());
+    }
+
+    @Test
+    void checkout_KeyReusedForDifferentCart_Rejected() throws Exception {
+        // Arrange
+        checkoutService.checkout("key-1", cart(item(laptop, 1))).get(5, TimeUnit.SECONDS);
+
+        // Act
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> checkoutService.checkout("key-1", cart(item(mouse, 1))).get(5, TimeUnit.SECONDS));
+
+        // Assert
+        ResponseStatusException cause = assertInstanceOf(ResponseStatusException.class, ex.getCause());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, cause.getStatusCode());
+        assertEquals(50, stockOf(mouse));
+    }
+
+    @Test
+    void checkout_NotEnoughStockForOneItem_RejectsWholeCart() {
+        // Act
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> checkoutService.checkout("key-1", cart(item(mouse, 1), item(laptop, 6))).get(5, TimeUnit.SECONDS));
+
+        // Assert
+        ResponseStatusException cause = assertInstanceOf(ResponseStatusException.class, ex.getCause());
+        assertEquals(HttpStatus.CONFLICT, cause.getStatusCode());
+        assertEquals(50, stockOf(mouse));
+        assertEquals(5, stockOf(laptop));
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void checkout_UnknownProductOrMissingKey_Rejected() {
+        // Act & Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> checkoutService.checkout("key-1",
+                cart(CheckoutItem.builder().productId(Long.MAX_VALUE).quantity(1).build())).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+
+        assertThrows(IllegalArgumentException.class, () -> checkoutService.checkout(" ", cart(item(laptop, 1))));
+    }
+
+    @Test
+    void checkout_ConcurrentFlashSale_SellsExactlyTheStockInFewBatches() throws Exception {
+        // Arrange
+        long batchesBefore = meterRegistry.get("checkout.batch.size").summary().count();
+
+        // Act
+        List<CompletableFuture<CheckoutService.CheckoutResult>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(checkoutService.checkout("flash-" + i, cart(item(laptop, 1))));
+        }
+        int placed = 0;
+        int soldOut = 0;
+        for (CompletableFuture<CheckoutService.CheckoutResult> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                placed++;
+            } catch (ExecutionException ex) {
+                assertEquals(HttpStatus.CONFLICT, ((ResponseStatusException) ex.getCause()).getStatusCode());
+                soldOut++;
+            }
+        }
+
+        // Assert
+        assertEquals(5, placed);
+        assertEquals(15, soldOut);
+        assertEquals(0, stockOf(laptop));
+        assertEquals(5, orderRepository.count());
+        long batches = meterRegistry.get("checkout.batch.size").summary().count() - batchesBefore;
+        assertTrue(batches < 20, "expected checkouts to share batches, got " + batches);
+    }
+
+    @Test
+    void checkout_OneCheckoutFailsItsTransaction_RestOfBatchPlaced() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("insert failed")).when(orderRepository).saveAll(argThat(
+                (Iterable<OrderEntity> orders) -> StreamSupport.stream(orders.spliterator(), false)
+                        .anyMatch(order -> order.getIdempotencyKey().equals("poison"))));
+
+        // Act
+        CompletableFuture<CheckoutService.CheckoutResult> poison = checkoutService.checkout("poison", cart(item(mouse, 1)));
+        List<CompletableFuture<CheckoutService.CheckoutResult>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(checkoutService.checkout("key-" + i, cart(item(mouse, 1))));
+        }
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> poison.get(5, TimeUnit.SECONDS));
+        assertEquals("insert failed", ex.getCause().getMessage());
+        for (CompletableFuture<CheckoutService.CheckoutResult> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).order().getId());
+        }
+        assertEquals(46, stockOf(mouse));
+        assertEquals(4, orderRepository.count());
+    }
+
+    private long executions(String sqlPrefix) {
+        return queryStatistics.snapshot().stream()
+                .filter(snapshot -> snapshot.getFingerprint().startsWith(sqlPrefix))
+                .mapToLong(QueryStatisticsSnapshot::getCount)
+                .sum();
+    }
+
+    private int stockOf(ProductEntity product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+
+    private static CheckoutRequest cart(CheckoutItem... items) {
+        return CheckoutRequest.builder().items(List.of(items)).build();
+    }
+
+    private static CheckoutItem item(ProductEntity product, int quantity) {
+        return CheckoutItem.builder().productId(product.getId()).quantity(quantity).build();
+    }
+
+    private static ProductEntity product(String sku, long price, int stock) {
+        return ProductEntity.builder()
+                .sku(sku).name(sku).price(price).currency("USD").stock(stock)
+                .build();
+    }
+}
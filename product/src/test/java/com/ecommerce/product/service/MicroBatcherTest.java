@@ -0,0 +1,187 @@
+package com.ecommerce.product.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MicroBatcher.
+ */
+class MicroBatcherTest {
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Integer, Integer> batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void submit_WhileABatchIsHandled_NextItemsShareOneBatch() throws Exception {
+        // Arrange
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MicroBatcher<>("test-batcher", 10, Duration.ofMillis(50), 100, batch -> {
+            firstStarted.countDown();
+            await(release);
+            recordAndDouble(batch);
+        });
+        CompletableFuture<Integer> first = batcher.submit(0);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            results.add(batcher.submit(i));
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals(0, first.get(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(2 * i, results.get(i - 1).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(List.of(0), List.of(1, 2, 3, 4, 5)), batches);
+    }
+
+    @Test
+    void submit_MoreThanMaxBatchSize_SplitsBatches() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MicroBatcher<>("test-batcher", 2, Duration.ofMillis(50), 100, batch -> {
+            await(release);
+            recordAndDouble(batch);
+        });
+
+        // Act
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(batcher.submit(i));
+        }
+        release.countDown();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2), batches.toString());
+        assertEquals(List.of(0, 1, 2, 3, 4), batches.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void submit_QueueFull_Rejected() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MicroBatcher<>("test-batcher", 1, Duration.ZERO, 1, batch -> {
+            started.countDown();
+            await(release);
+            recordAndDouble(batch);
+        });
+        batcher.submit(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        batcher.submit(2);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> batcher.submit(3));
+        release.countDown();
+    }
+
+    @Test
+    void handler_ThrowsOrLeavesResultsIncomplete_ResultsFail() {
+        // Arrange
+        batcher = new MicroBatcher<>("test-batcher", 10, Duration.ZERO, 100, batch -> {
+            if (batch.get(0).item() < 0) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        // Act
+        CompletableFuture<Integer> thrown = batcher.submit(-1);
+        CompletableFuture<Integer> incomplete = batcher.submit(1);
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> thrown.get(5, TimeUnit.SECONDS));
+        assertEquals("boom", failure.getCause().getMessage());
+        assertThrows(ExecutionException.class, () -> incomplete.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void close_HandlesQueuedItemsThenRejects() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MicroBatcher<>("test-batcher", 10, Duration.ZERO, 100, batch -> {
+            await(release);
+            recordAndDouble(batch);
+        });
+        CompletableFuture<Integer> queued = batcher.submit(21);
+
+        // Act
+        Thread closer = Thread.ofPlatform().start(() -> {
+            try {
+                batcher.close();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        release.countDown();
+        closer.join(5000);
+
+        // Assert
+        assertEquals(42, queued.get(5, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> batcher.submit(1));
+    }
+
+    @Test
+    void submit_RacingClose_EveryAcceptedItemCompletes() throws Exception {
+        // Arrange
+        batcher = new MicroBatcher<>("test-batcher", 10, Duration.ofMillis(1), 10000, this::recordAndDouble);
+        List<CompletableFuture<Integer>> accepted = new CopyOnWriteArrayList<>();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            submitters.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        accepted.add(batcher.submit(i));
+                    } catch (RejectedExecutionException ex) {
+                        return;
+                    }
+                }
+            }));
+        }
+
+        // Act
+        batcher.close();
+        for (Thread submitter : submitters) {
+            submitter.join(5000);
+        }
+
+        // Assert
+        CompletableFuture.allOf(accepted.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    }
+
+    private void recordAndDouble(List<MicroBatcher.Pending<Integer, Integer>> batch) {
+        batches.add(batch.stream().map(MicroBatcher.Pending::item).toList());
+        batch.forEach(pending -> pending.result().complete(pending.item() * 2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
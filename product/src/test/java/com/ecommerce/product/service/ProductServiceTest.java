@@ -1,20 +1,25 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.cache.TwoLevelCache;
+import com.ecommerce.product.columnar.ColumnarProductStore;
 import com.ecommerce.product.dto.CreateProductRequest;
 import com.ecommerce.product.dto.PagedProductResponse;
 import com.ecommerce.product.dto.ProductResponse;
 import com.ecommerce.product.entity.ProductEntity;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,7 +39,18 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ColumnarProductStore columnarStore;
+
+    @Spy
+    private TwoLevelCache<ProductResponse> productCache = TwoLevelCache.disabled("product");
+
+    @Spy
+    private TwoLevelCache<PagedProductResponse> searchCache = TwoLevelCache.disabled("search");
+
     private ProductService productService;
 
     private ProductEntity testProduct;
@@ -42,12 +58,16 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Built by hand: both caches have the same erased type
+        productService = new ProductService(productRepository, searchIndex, columnarStore, productCache, searchCache);
+
         testProduct = ProductEntity.builder()
                 .id(1L)
                 .sku("LAP-001")
                 .name("Laptop")
                 .description("High-performance laptop")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
 
@@ -55,7 +75,8 @@ class ProductServiceTest {
                 .sku("LAP-001")
                 .name("Laptop")
                 .description("High-performance laptop")
-                .price(999.99)
+                .price(99999L)
+                .currency("USD")
                 .stock(50)
                 .build();
     }
@@ -74,11 +95,34 @@ class ProductServiceTest {
         assertEquals(1L, response.getId());
         assertEquals("LAP-001", response.getSku());
         assertEquals("Laptop", response.getName());
-        assertEquals(999.99, response.getPrice());
+        assertEquals(99999L, response.getPrice());
+        assertEquals("USD", response.getCurrency());
         assertEquals(50, response.getStock());
 
         verify(productRepository).existsBySku("LAP-001");
         verify(productRepository).save(any(ProductEntity.class));
+        verify(searchCache).invalidateAll();
+        verify(searchIndex).add(1L, "Laptop");
+        verify(columnarStore).markStale();
+    }
+
+    @Test
+    void createProduct_InTransaction_IndexesOnlyAfterCommit() {
+        // Arrange
+        when(productRepository.existsBySku(anyString())).thenReturn(false);
+        when(productRepository.save(any(ProductEntity.class))).thenReturn(testProduct);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            productService.createProduct(createRequest);
+
+            // Assert
+            verify(searchIndex, never()).add(anyLong(), anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(searchIndex).add(1L, "Laptop");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -96,6 +140,36 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any(ProductEntity.class));
     }
 
+    @Test
+    void createProduct_DefaultsToUsd() {
+        // Arrange
+        createRequest.setCurrency(null);
+        when(productRepository.existsBySku(anyString())).thenReturn(false);
+        when(productRepository.save(any(ProductEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProductResponse response = productService.createProduct(createRequest);
+
+        // Assert
+        assertEquals("USD", response.getCurrency());
+        assertEquals(99999L, response.getPrice());
+    }
+
+    @Test
+    void createProduct_UnknownCurrency_ThrowsException() {
+        // Arrange
+        createRequest.setCurrency("XYZ");
+        when(productRepository.existsBySku(anyString())).thenReturn(false);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> productService.createProduct(createRequest));
+
+        assertEquals("Unknown currency 'XYZ'", exception.getMessage());
+        verify(productRepository, never()).save(any(ProductEntity.class));
+    }
+
     @Test
     void getProductById_Success() {
         // Arrange
@@ -113,6 +187,23 @@ class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void getProductsByIds_LoadsMissesInOneQueryAndKeepsOrder() {
+        // Arrange
+        ProductEntity mouse = ProductEntity.builder()
+                .id(2L).sku("MOU-001").name("Mouse").price(2999L).currency("USD").stock(100)
+                .build();
+        when(productRepository.findAllById(List.of(2L, 999L, 1L))).thenReturn(List.of(testProduct, mouse));
+
+        // Act
+        List<ProductResponse> products = productService.getProductsByIds(List.of(2L, 999L, 1L, 2L));
+
+        // Assert
+        assertEquals(List.of("MOU-001", "LAP-001"), products.stream().map(ProductResponse::getSku).toList());
+        verify(productRepository).findAllById(List.of(2L, 999L, 1L));
+        verify(productRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getProductById_NotFound_ThrowsException() {
         // Arrange
@@ -135,7 +226,8 @@ class ProductServiceTest {
                 .sku("MOU-001")
                 .name("Mouse")
                 .description("Wireless mouse")
-                .price(29.99)
+                .price(2999L)
+                .currency("USD")
                 .stock(100)
                 .build();
 
@@ -159,6 +251,27 @@ class ProductServiceTest {
         verify(productRepository).findAll(any(Pageable.class));
     }
 
+    @Test
+    void getAllProducts_FromColumnarStore() {
+        // Arrange
+        PagedProductResponse cached = PagedProductResponse.builder()
+                .content(List.of())
+                .page(0)
+                .size(20)
+                .totalElements(0L)
+                .totalPages(0)
+                .last(true)
+                .build();
+        when(columnarStore.page(PageRequest.of(0, 20))).thenReturn(Optional.of(cached));
+
+        // Act
+        PagedProductResponse response = productService.getAllProducts(PageRequest.of(0, 20));
+
+        // Assert
+        assertSame(cached, response);
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void searchProducts_Success() {
         // Arrange
@@ -196,4 +309,35 @@ class ProductServiceTest {
 
         verify(productRepository).searchByName("nonexistent", PageRequest.of(0, 20));
     }
+
+    @Test
+    void searchProducts_UsesIndexMatches() {
+        // Arrange
+        Page<ProductEntity> page = new PageImpl<>(List.of(testProduct), PageRequest.of(0, 20), 1);
+
+        when(searchIndex.matchingIds("lap")).thenReturn(Optional.of(List.of(1L)));
+        when(productRepository.searchByNameAmongIds(List.of(1L), "lap", PageRequest.of(0, 20))).thenReturn(page);
+
+        // Act
+        PagedProductResponse response = productService.searchProducts("lap", PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(1, response.getContent().size());
+        assertEquals("Laptop", response.getContent().get(0).getName());
+        verify(productRepository, never()).searchByName(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchProducts_NoIndexMatches_SkipsDatabase() {
+        // Arrange
+        when(searchIndex.matchingIds("zzz")).thenReturn(Optional.of(List.of()));
+
+        // Act
+        PagedProductResponse response = productService.searchProducts("zzz", PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(0, response.getContent().size());
+        assertEquals(0L, response.getTotalElements());
+        verifyNoInteractions(productRepository);
+    }
 }
@@ -0,0 +1,94 @@
+package com.ecommerce.product.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ConcurrentIdenticalCalls_ShareOneLoad() throws Exception {
+        // Arrange
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("lap", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Laptop";
+                })));
+            }
+            while (loads.get() == 0) {
+                Thread.sleep(5);
+            }
+            // Give the remaining callers time to join the in-flight call
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("Laptop", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, singleFlight.inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_SequentialCalls_LoadEachTime() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        singleFlight.execute("lap", () -> "Laptop" + loads.incrementAndGet());
+        String second = singleFlight.execute("lap", () -> "Laptop" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("Laptop2", second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void execute_LoaderThrows_ExceptionPropagatesAndKeyIsReleased() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> singleFlight.execute("missing", () -> {
+                    throw new IllegalArgumentException("Product with ID 999 not found");
+                }));
+
+        assertTrue(exception.getMessage().contains("not found"));
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals("found", singleFlight.execute("missing", () -> "found"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
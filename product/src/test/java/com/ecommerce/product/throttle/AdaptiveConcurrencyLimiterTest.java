@@ -0,0 +1,93 @@
+package com.ecommerce.product.throttle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter and ConcurrencyLimitInterceptor.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void tryAcquire_OverLimit_Rejects() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("search", 2, 1, 10, 0.2, 1.5);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(BASELINE_RTT);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_LatencyRisesAboveBaseline_LimitShrinks() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("search", 40, 4, 100, 0.2, 1.5);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(BASELINE_RTT);
+        }
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(BASELINE_RTT * 10);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < 40, "limit was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void release_SaturatedAtSteadyLatency_LimitGrows() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("default", 10, 4, 100, 0.2, 1.5);
+
+        // Act: keep the limiter full while latency stays at the baseline
+        for (int i = 0; i < 50; i++) {
+            while (limiter.tryAcquire()) {
+                // fill up to the current limit
+            }
+            limiter.release(BASELINE_RTT);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100);
+    }
+
+    @Test
+    void interceptor_OverLimit_Returns503AndReleasesOnCompletion() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("default", 1, 1, 1, 0.2, 1.5);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter);
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/products/1");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/products/2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act & Assert
+        assertTrue(interceptor.preHandle(first, response, new Object()));
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> interceptor.preHandle(second, response, new Object()));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+
+        interceptor.afterCompletion(first, response, new Object(), null);
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(interceptor.preHandle(second, response, new Object()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.product.throttle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucket and RateLimiter.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tokenBucket_BurstThenRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void acquire_OverCapacity_ThrowsTooManyRequestsWithRetryAfter() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(limits(2, 0.5), 100);
+        rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0.0.1");
+        rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0.0.1");
+
+        // Act & Assert
+        TooManyRequestsException exception = assertThrows(
+                TooManyRequestsException.class,
+                () -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0.0.1"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        assertEquals("2", exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, rateLimiter.getRejected());
+    }
+
+    @Test
+    void acquire_DifferentClientsAndUnconfiguredKeys_AreIndependent() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(limits(1, 0.1), 100);
+        rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0.0.1");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0.0.2"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.TOKEN, "abc"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("default", ThrottleProperties.RateLimitKey.IP, "10.0.0.1"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, null));
+    }
+
+    @Test
+    void acquire_ManyClients_BucketCountStaysBounded() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(limits(5, 1), 50);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        // Assert
+        assertTrue(rateLimiter.getBucketCount() <= 50, "buckets: " + rateLimiter.getBucketCount());
+    }
+
+    @Test
+    void acquire_ManyNewClients_BusyClientKeepsItsEmptyBucket() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(limits(1, 0.001), 50);
+        rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.1.0.1");
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.0." + (i / 256) + "." + (i % 256));
+            if (i % 10 == 0) {
+                assertThrows(TooManyRequestsException.class,
+                        () -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.1.0.1"));
+            }
+        }
+
+        // Assert
+        assertThrows(TooManyRequestsException.class,
+                () -> rateLimiter.acquire("search", ThrottleProperties.RateLimitKey.IP, "10.1.0.1"));
+        assertTrue(rateLimiter.getBucketCount() <= 50, "buckets: " + rateLimiter.getBucketCount());
+    }
+
+    private static Map<String, Map<ThrottleProperties.RateLimitKey, ThrottleProperties.RateLimit>> limits(
+            int capacity, double refillPerSecond) {
+        ThrottleProperties.RateLimit limit = new ThrottleProperties.RateLimit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return Map.of("search", Map.of(ThrottleProperties.RateLimitKey.IP, limit));
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.product.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HotKeyLog.
+ */
+class HotKeyLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAndLoad_HottestKeysFirst() {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        HotKeyLog hotKeyLog = new HotKeyLog(file, 100, 2, 10);
+        hotKeyLog.recordProduct(1L);
+        hotKeyLog.recordProduct(2L);
+        hotKeyLog.recordProduct(2L);
+        hotKeyLog.recordProduct(3L);
+        hotKeyLog.recordProduct(3L);
+        hotKeyLog.recordProduct(3L);
+        hotKeyLog.recordSearch("wireless mouse");
+
+        // Act
+        hotKeyLog.save();
+        HotKeyLog.HotKeys hotKeys = new HotKeyLog(file, 100, 2, 10).loadPrevious();
+
+        // Assert
+        assertEquals(List.of(3L, 2L), hotKeys.productIds());
+        assertEquals(List.of("wireless mouse"), hotKeys.searchQueries());
+    }
+
+    @Test
+    void save_NoTraffic_KeepsPreviousFile() throws Exception {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        Files.writeString(file, "product 5 42\n");
+
+        // Act
+        new HotKeyLog(file, 100, 10, 10).save();
+
+        // Assert
+        assertEquals(List.of(42L), new HotKeyLog(file, 100, 10, 10).loadPrevious().productIds());
+    }
+
+    @Test
+    void record_BeyondTrackedLimit_IgnoresNewKeys() {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        HotKeyLog hotKeyLog = new HotKeyLog(file, 1, 10, 10);
+
+        // Act
+        hotKeyLog.recordProduct(1L);
+        hotKeyLog.recordProduct(2L);
+        hotKeyLog.recordProduct(1L);
+        hotKeyLog.save();
+
+        // Assert
+        assertEquals(List.of(1L), hotKeyLog.loadPrevious().productIds());
+    }
+
+    @Test
+    void save_OldTrafficDecays_RecentlyHotKeyWins() {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        HotKeyLog hotKeyLog = new HotKeyLog(file, 100, 1, 10);
+        for (int i = 0; i < 8; i++) {
+            hotKeyLog.recordProduct(1L);
+        }
+        hotKeyLog.save();
+        hotKeyLog.save();
+
+        // Act: 1L is down to 2 after two windows without hits
+        for (int i = 0; i < 3; i++) {
+            hotKeyLog.recordProduct(2L);
+        }
+        hotKeyLog.save();
+
+        // Assert
+        assertEquals(List.of(2L), hotKeyLog.loadPrevious().productIds());
+    }
+
+    @Test
+    void save_ColdKeysForgotten_FreeTrackedLimit() {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        HotKeyLog hotKeyLog = new HotKeyLog(file, 1, 10, 10);
+        hotKeyLog.recordProduct(1L);
+        hotKeyLog.save();
+
+        // Act
+        hotKeyLog.recordProduct(2L);
+        hotKeyLog.save();
+
+        // Assert
+        assertEquals(List.of(2L), hotKeyLog.loadPrevious().productIds());
+    }
+
+    @Test
+    void loadPrevious_MissingOrCorruptFile_Empty() throws Exception {
+        // Arrange
+        Path missing = dir.resolve("missing.txt");
+        Path corrupt = dir.resolve("corrupt.txt");
+        Files.writeString(corrupt, "product 1 not-a-number\n");
+
+        // Act & Assert
+        assertTrue(new HotKeyLog(missing, 100, 10, 10).loadPrevious().productIds().isEmpty());
+        assertTrue(new HotKeyLog(corrupt, 100, 10, 10).loadPrevious().productIds().isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.product.warmup;
+
+import com.ecommerce.product.controller.ProductController;
+import com.ecommerce.product.dto.PagedProductResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.serialization.ProductJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WarmupRunner.
+ */
+class WarmupRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private ProductController productController;
+    private ProductJsonHttpMessageConverter converter;
+    private StaticListableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        productController = mock(ProductController.class);
+        beanFactory = new StaticListableBeanFactory();
+        converter = new ProductJsonHttpMessageConverter(new ObjectMapper(),
+                beanFactory.getBeanProvider(MeterRegistry.class), 100, 10, false, DataSize.ofKilobytes(2));
+        beanFactory.addBean("productJsonHttpMessageConverter", converter);
+    }
+
+    @Test
+    void run_ReplaysHotKeysAndFillsJsonCache() throws Exception {
+        // Arrange
+        Path file = dir.resolve("hot-keys.txt");
+        Files.writeString(file, "product 9 1\nproduct 3 404\nsearch 2 lap\n");
+        ProductResponse laptop = ProductResponse.builder().id(1L).sku("LAP-001").name("Laptop").build();
+        when(productController.getProductById(1L))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(laptop)));
+        when(productController.getProductById(404L))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Product with ID 404 not found")));
+        when(productController.searchProducts(anyString(), anyInt(), anyInt(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(PagedProductResponse.builder()
+                        .content(List.of(laptop)).page(0).size(20).totalElements(1L).totalPages(1).last(true)
+                        .build())));
+
+        // Act
+        runner(file, 2).run(new DefaultApplicationArguments());
+
+        // Assert
+        verify(productController, times(2)).getProductById(1L);
+        verify(productController, times(2)).getProductById(404L);
+        verify(productController, times(2)).searchProducts("lap", 0, 20, "sku,asc");
+        assertEquals(1, converter.getCache().size());
+    }
+
+    @Test
+    void run_NoHotKeys_DoesNothing() throws Exception {
+        // Act
+        runner(dir.resolve("missing.txt"), 3).run(new DefaultApplicationArguments());
+
+        // Assert
+        verify(productController, never()).getProductById(anyLong());
+        verify(productController, never()).searchProducts(anyString(), anyInt(), anyInt(), anyString());
+    }
+
+    private WarmupRunner runner(Path file, int iterations) {
+        return new WarmupRunner(new HotKeyLog(file, 100, 10, 10), productController,
+                beanFactory.getBeanProvider(ProductJsonHttpMessageConverter.class), iterations, 60000);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.user;
+
+import com.ecommerce.user.cache.EmbeddedInvalidationBus;
+import com.ecommerce.user.cache.EmbeddedRemoteCache;
+import com.ecommerce.user.cache.InvalidationBus;
+import com.ecommerce.user.cache.RemoteCache;
+import com.ecommerce.user.cache.TwoLevelCache;
+import com.ecommerce.user.session.Session;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Two-level cache for session token lookups.
+ * The remote cache and invalidation bus declared here are the in-JVM
+ * stand-ins; a deployment with several instances replaces these two
+ * beans with ones backed by a shared cache and a broadcast channel.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public RemoteCache remoteCache(@Value("${cache.remote.embedded.max-entries:100000}") int maxEntries) {
+        return new EmbeddedRemoteCache(maxEntries);
+    }
+
+    @Bean
+    public InvalidationBus invalidationBus() {
+        return new EmbeddedInvalidationBus();
+    }
+
+    @Bean
+    public TwoLevelCache<Session> sessionCache(
+            RemoteCache remoteCache, InvalidationBus invalidationBus, ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${cache.two-level.enabled:true}") boolean enabled,
+            @Value("${cache.session.near.max-entries:0}") int nearMaxEntries,
+            @Value("${cache.session.near.ttl-ms:5000}") long nearTtlMillis,
+            @Value("${cache.session.remote.ttl-ms:3600000}") long remoteTtlMillis) {
+        if (!enabled) {
+            return TwoLevelCache.disabled("session");
+        }
+        return new TwoLevelCache<>("session", Session.class, objectMapper, remoteCache, invalidationBus,
+                nearMaxEntries, Duration.ofMillis(nearTtlMillis), Duration.ofMillis(remoteTtlMillis), meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The users and sessions schema is owned by the Flyway migrations in
+ * db/migration, applied before JPA starts and validated by Hibernate.
+ */
+@Configuration
+public class DatabaseConfiguration {
+
+    /**
+     * Apply pending migrations unless spring.flyway.enabled is false.
+     * Under AOT the Flyway beans are fixed at build time and ignore that
+     * property, so it is checked again here; the CDS training run relies on
+     * it to start without a database.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -1,22 +1,140 @@
 package com.ecommerce.user;
 
 import com.ecommerce.user.resolver.UserArgumentResolver;
+import com.ecommerce.user.throttle.AdaptiveConcurrencyLimiter;
+import com.ecommerce.user.throttle.ConcurrencyLimitInterceptor;
+import com.ecommerce.user.throttle.RateLimitInterceptor;
+import com.ecommerce.user.throttle.RateLimiter;
+import com.ecommerce.user.throttle.ThrottleProperties;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(ThrottleProperties.class)
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private static final String LOGIN_PATH = "/api/auth/login";
+
     @Autowired
     private UserArgumentResolver userArgumentResolver;
 
+    @Autowired
+    private ThrottleProperties throttleProperties;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${async.io.pool-size:50}")
+    private int ioPoolSize;
+
+    @Value("${async.io.queue-capacity:500}")
+    private int ioQueueCapacity;
+
+    @Value("${async.request-timeout-ms:30000}")
+    private long asyncTimeoutMillis;
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         WebMvcConfigurer.super.addArgumentResolvers(resolvers);
         resolvers.add(userArgumentResolver);
     }
+
+    // Repository work of async controllers runs here, off the Tomcat threads. The queue is
+    // bounded, so a slow database turns into rejected requests instead of unbounded backlog.
+    @Bean
+    public ThreadPoolTaskExecutor ioExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("io-");
+        executor.setCorePoolSize(ioPoolSize);
+        executor.setMaxPoolSize(ioPoolSize);
+        executor.setQueueCapacity(ioQueueCapacity);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMillis);
+        configurer.setTaskExecutor(ioExecutor());
+    }
+
+    // Binary encodings for service-to-service calls, configured like the JSON mapper
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        RateLimiter rateLimiter = new RateLimiter(throttleProperties.getRateLimit(), throttleProperties.getMaxBuckets());
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("throttle.rate.limit.buckets", rateLimiter, RateLimiter::getBucketCount).register(registry);
+            FunctionCounter.builder("throttle.rate.limit.rejected", rateLimiter, RateLimiter::getRejected)
+                    .register(registry);
+        });
+        return rateLimiter;
+    }
+
+    // Login is bcrypt-bound, so it gets its own limits and cannot starve token lookups.
+    // Rate limits go first, so rejected clients never hold a concurrency permit.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        RateLimiter rateLimiter = rateLimiter();
+        if (rateLimiter.hasLimits("login")) {
+            registry.addInterceptor(new RateLimitInterceptor("login", rateLimiter))
+                    .addPathPatterns(LOGIN_PATH);
+        }
+        if (rateLimiter.hasLimits("default")) {
+            registry.addInterceptor(new RateLimitInterceptor("default", rateLimiter))
+                    .addPathPatterns("/api/**")
+                    .excludePathPatterns(LOGIN_PATH);
+        }
+
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter("login")))
+                .addPathPatterns(LOGIN_PATH);
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter("default")))
+                .addPathPatterns("/api/**")
+                .excludePathPatterns(LOGIN_PATH);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String route) {
+        ThrottleProperties.ConcurrencyLimit settings = throttleProperties.getConcurrency()
+                .getOrDefault(route, new ThrottleProperties.ConcurrencyLimit());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(route,
+                settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit(),
+                settings.getSmoothing(), settings.getRttTolerance());
+
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("throttle.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("route", route).register(registry);
+            Gauge.builder("throttle.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("route", route).register(registry);
+            FunctionCounter.builder("throttle.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("route", route).register(registry);
+        });
+        return limiter;
+    }
 }
@@ -0,0 +1,69 @@
+package com.ecommerce.user.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-JVM stand-in for the shared remote cache, for local runs and tests.
+ * It is only shared by the caches of this JVM; deployments with several
+ * instances declare a {@link RemoteCache} bean backed by a real shared
+ * cache instead. Expired entries are dropped when read, and when a cache
+ * is full; a put into a full cache is skipped.
+ */
+public class EmbeddedRemoteCache implements RemoteCache {
+
+    private final int maxEntriesPerCache;
+    private final Map<String, Map<String, Entry>> caches = new ConcurrentHashMap<>();
+
+    public EmbeddedRemoteCache(int maxEntriesPerCache) {
+        this.maxEntriesPerCache = maxEntriesPerCache;
+    }
+
+    @Override
+    public byte[] get(String cache, String key) {
+        Map<String, Entry> entries = caches.get(cache);
+        Entry entry = entries == null ? null : entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String cache, String key, byte[] value, Duration ttl) {
+        Map<String, Entry> entries = caches.computeIfAbsent(cache, name -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntriesPerCache && !entries.containsKey(key)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntriesPerCache) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, now + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String cache, String key) {
+        Map<String, Entry> entries = caches.get(cache);
+        if (entries != null) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public void clear(String cache) {
+        caches.remove(cache);
+    }
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.user.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to every instance of the service, such
+ * as over Redis pub/sub or a message topic. Delivery may be asynchronous
+ * and is not guaranteed; near cache entries expire on their own, which
+ * bounds how long a lost message leaves them stale.
+ */
+public interface InvalidationBus {
+
+    void publish(Invalidation invalidation);
+
+    void subscribe(Consumer<Invalidation> listener);
+
+    /**
+     * One invalidated entry, or a whole cache.
+     *
+     * @param origin the cache instance that published it, so it can skip its own messages
+     * @param cache  the cache name
+     * @param key    the key, or null for every entry
+     */
+    record Invalidation(String origin, String cache, String key) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.user.cache;
+
+import java.time.Duration;
+
+/**
+ * Cache shared by every instance of the service, such as Redis or
+ * Hazelcast. Values are opaque bytes, grouped by cache name so a whole
+ * cache can be cleared at once. Implementations must be thread-safe;
+ * {@link TwoLevelCache} treats any exception as a miss.
+ */
+public interface RemoteCache {
+
+    /**
+     * @return the value, or null if absent or expired
+     */
+    byte[] get(String cache, String key);
+
+    void put(String cache, String key, byte[] value, Duration ttl);
+
+    void evict(String cache, String key);
+
+    void clear(String cache);
+}
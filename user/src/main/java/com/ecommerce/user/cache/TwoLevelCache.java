@@ -0,0 +1,291 @@
+package com.ecommerce.user.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cache with an in-process near copy in front of a {@link RemoteCache}
+ * shared by all instances. Reads try the near cache, then the remote
+ * cache, then the loader, and fill the levels they missed. Values are
+ * stored remotely as JSON.
+ * <p>
+ * Invalidations evict both levels and are broadcast on the
+ * {@link InvalidationBus}, so other instances drop their near copies.
+ * Inside a transaction they wait for the commit, so no instance reloads
+ * the old value in between. A load that overlaps an invalidation is
+ * returned but not cached. Near entries expire after a short time, which
+ * bounds the staleness a lost broadcast can cause.
+ * <p>
+ * When the remote cache fails, reads fall through to the loader.
+ *
+ * @param <V> the value type; null values are not cached
+ */
+@Slf4j
+public class TwoLevelCache<V> {
+
+    private final String name;
+    private final boolean enabled;
+    private final Class<V> type;
+    private final ObjectMapper objectMapper;
+    private final RemoteCache remote;
+    private final InvalidationBus bus;
+    private final Cache<String, V> near;
+    private final Duration remoteTtl;
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private final Counter nearHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Counter remoteErrors;
+
+    /**
+     * @param nearMaxEntries size of the near cache; 0 for none
+     * @param nearTtl        how long a near entry is used before it is read from the remote cache again
+     * @param remoteTtl      how long a remote entry lives unless a put gives its own time to live
+     */
+    public TwoLevelCache(String name, Class<V> type, ObjectMapper objectMapper, RemoteCache remote, InvalidationBus bus,
+                         int nearMaxEntries, Duration nearTtl, Duration remoteTtl,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.name = name;
+        this.enabled = true;
+        this.type = type;
+        this.objectMapper = objectMapper;
+        this.remote = remote;
+        this.bus = bus;
+        this.near = nearMaxEntries > 0
+                ? Caffeine.newBuilder().maximumSize(nearMaxEntries).expireAfterWrite(nearTtl).build()
+                : null;
+        this.remoteTtl = remoteTtl;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.nearHits = requests(registry, "near");
+        this.remoteHits = requests(registry, "remote");
+        this.misses = requests(registry, "miss");
+        this.remoteErrors = registry == null ? null : Counter.builder("cache.two.level.remote.errors")
+                .tag("cache", name)
+                .register(registry);
+
+        bus.subscribe(this::received);
+    }
+
+    private TwoLevelCache(String name) {
+        this.name = name;
+        this.enabled = false;
+        this.type = null;
+        this.objectMapper = null;
+        this.remote = null;
+        this.bus = null;
+        this.near = null;
+        this.remoteTtl = null;
+        this.nearHits = null;
+        this.remoteHits = null;
+        this.misses = null;
+        this.remoteErrors = null;
+    }
+
+    /**
+     * A cache that stores nothing: every read calls the loader.
+     */
+    public static <V> TwoLevelCache<V> disabled(String name) {
+        return new TwoLevelCache<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the cached value, or load and cache it.
+     *
+     * @param loader loads the value on a miss; may return null, which is not cached
+     */
+    public V get(String key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        if (near != null) {
+            V value = near.getIfPresent(key);
+            if (value != null) {
+                increment(nearHits);
+                return value;
+            }
+        }
+
+        long seen = invalidations.get();
+        V value = readRemote(key);
+        if (value != null) {
+            increment(remoteHits);
+            putNear(key, value, seen);
+            return value;
+        }
+
+        increment(misses);
+        value = loader.get();
+        if (value != null && invalidations.get() == seen) {
+            writeRemote(key, value, remoteTtl);
+            putNear(key, value, seen);
+        }
+        return value;
+    }
+
+    /**
+     * Store a value in both levels, so other instances find it before
+     * it reaches the database.
+     *
+     * @param ttl how long the remote entry lives
+     */
+    public void put(String key, V value, Duration ttl) {
+        if (!enabled) {
+            return;
+        }
+        writeRemote(key, value, ttl);
+        if (near != null) {
+            near.put(key, value);
+        }
+    }
+
+    /**
+     * Evict one entry here, remotely and on every other instance.
+     */
+    public void invalidate(String key) {
+        if (enabled) {
+            afterCommit(() -> {
+                invalidations.incrementAndGet();
+                if (near != null) {
+                    near.invalidate(key);
+                }
+                try {
+                    remote.evict(name, key);
+                } catch (RuntimeException ex) {
+                    remoteFailed("evict", ex);
+                }
+                bus.publish(new InvalidationBus.Invalidation(origin, name, key));
+            });
+        }
+    }
+
+    /**
+     * Evict every entry here, remotely and on every other instance.
+     */
+    public void invalidateAll() {
+        if (enabled) {
+            afterCommit(() -> {
+                invalidations.incrementAndGet();
+                if (near != null) {
+                    near.invalidateAll();
+                }
+                try {
+                    remote.clear(name);
+                } catch (RuntimeException ex) {
+                    remoteFailed("clear", ex);
+                }
+                bus.publish(new InvalidationBus.Invalidation(origin, name, null));
+            });
+        }
+    }
+
+    /**
+     * Be told about invalidations made by other instances, with the key,
+     * or null when the whole cache was invalidated.
+     */
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private void received(InvalidationBus.Invalidation invalidation) {
+        if (!name.equals(invalidation.cache()) || origin.equals(invalidation.origin())) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        if (near != null) {
+            if (invalidation.key() == null) {
+                near.invalidateAll();
+            } else {
+                near.invalidate(invalidation.key());
+            }
+        }
+        listeners.forEach(listener -> listener.accept(invalidation.key()));
+    }
+
+    private V readRemote(String key) {
+        byte[] bytes;
+        try {
+            bytes = remote.get(name, key);
+        } catch (RuntimeException ex) {
+            remoteFailed("get", ex);
+            return null;
+        }
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException ex) {
+            log.warn("Dropping unreadable {} cache entry {}", name, key, ex);
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, V value, Duration ttl) {
+        try {
+            remote.put(name, key, objectMapper.writeValueAsBytes(value), ttl);
+        } catch (IOException | RuntimeException ex) {
+            remoteFailed("put", ex);
+        }
+    }
+
+    private void putNear(String key, V value, long seen) {
+        if (near != null && invalidations.get() == seen) {
+            near.put(key, value);
+        }
+    }
+
+    private void remoteFailed(String operation, Exception ex) {
+        increment(remoteErrors);
+        log.debug("Remote {} cache {} failed", name, operation, ex);
+    }
+
+    private Counter requests(MeterRegistry registry, String result) {
+        return registry == null ? null : Counter.builder("cache.two.level.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
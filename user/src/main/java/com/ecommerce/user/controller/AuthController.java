@@ -1,14 +1,15 @@
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.model.ApiMediaTypes;
 import com.ecommerce.user.model.LoginUserRequest;
 import com.ecommerce.user.model.TokenResponse;
 import com.ecommerce.user.model.WebResponse;
 import com.ecommerce.user.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.awt.*;
@@ -19,19 +20,20 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
-    @PostMapping(path = "/api/auth/login", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(path = "/api/auth/login", consumes = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE}, produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public WebResponse<TokenResponse> login(@RequestBody LoginUserRequest request) {
         TokenResponse tokenResponse = authService.login(request);
         return WebResponse.<TokenResponse>builder().data(tokenResponse).build();
     }
 
-    @DeleteMapping(path = "/api/auth/logout", produces = MediaType.APPLICATION_JSON_VALUE)
-    public WebResponse<String> logout(com.ecommerce.user.entity.User user) {
+    @DeleteMapping(path = "/api/auth/logout", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public WebResponse<String> logout(com.ecommerce.user.entity.User user,
+            @RequestHeader(value = "X-API-TOKEN", required = false) String token) {
         if (user == null) {
             throw new org.springframework.web.server.ResponseStatusException(
                     org.springframework.http.HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
-        authService.logout(user);
+        authService.logout(token);
         return WebResponse.<String>builder().data("success").build();
     }
 }
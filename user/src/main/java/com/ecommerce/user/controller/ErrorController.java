@@ -7,6 +7,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ErrorController {
@@ -21,6 +24,13 @@ public class ErrorController {
     public ResponseEntity<WebResponse<String>> apiException(
             org.springframework.web.server.ResponseStatusException exception) {
         return ResponseEntity.status(exception.getStatusCode())
+                .headers(exception.getHeaders())
                 .body(WebResponse.<String>builder().errors(exception.getReason()).build());
     }
+
+    @ExceptionHandler({RejectedExecutionException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<WebResponse<String>> asyncOverload(Exception exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(WebResponse.<String>builder().errors("Server is busy, please retry later").build());
+    }
 }
@@ -0,0 +1,61 @@
+package com.ecommerce.user.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One login session. A user may hold any number of them.
+ * Only the SHA-256 hash of the token is stored.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "sessions")
+public class UserSession implements Persistable<String> {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(name = "expired_at", nullable = false)
+    private Long expiredAt;
+
+    // New sessions are inserted without the select a merge would do
+    @Transient
+    private boolean persisted;
+
+    public UserSession(String tokenHash, String username, Long expiredAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.expiredAt = expiredAt;
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
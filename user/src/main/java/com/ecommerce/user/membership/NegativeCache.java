@@ -0,0 +1,58 @@
+package com.ecommerce.user.membership;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Remembers recent lookup misses for a short time, so repeated lookups of
+ * the same unknown key are answered from memory.
+ * Misses live in a size-bounded Caffeine cache: each expires after the TTL
+ * and, past the capacity, the least valuable ones are evicted in amortized
+ * constant time, so a flood of unknown keys costs no scans.
+ */
+public class NegativeCache {
+
+    private final Cache<String, Boolean> misses;
+
+    public NegativeCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, Ticker.systemTicker());
+    }
+
+    NegativeCache(long ttlMillis, int maxEntries, Ticker ticker) {
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .executor(Runnable::run)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Whether the key missed within the TTL.
+     */
+    public boolean contains(String key) {
+        return misses.getIfPresent(key) != null;
+    }
+
+    /**
+     * Record a miss for the key.
+     */
+    public void add(String key) {
+        misses.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Forget a miss, e.g. once the key has been created.
+     */
+    public void remove(String key) {
+        misses.invalidate(key);
+    }
+
+    public int size() {
+        misses.cleanUp();
+        return (int) misses.estimatedSize();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.user.membership;
+
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Bloom filter over a changing set, replaced wholesale by rebuilding it
+ * from the source of truth. Until the first build everything might be
+ * contained. Entries added while a rebuild runs go into both the old and
+ * the new filter, so none is lost in the swap.
+ */
+public class RebuildableBloomFilter {
+
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    public RebuildableBloomFilter(long expectedEntries, double falsePositiveRate) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * @return false if the hash is definitely not in the set
+     */
+    public boolean mightContain(long hash) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(hash);
+    }
+
+    public void put(long hash) {
+        // Read building first: if it is not set yet, the rebuild has not read the source yet either
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(hash);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(hash);
+        }
+    }
+
+    /**
+     * Replace the filter with one holding only what the source yields.
+     * Rebuilds must not run concurrently.
+     *
+     * @param source feeds every hash of the set to the given consumer
+     */
+    public void rebuild(Consumer<LongConsumer> source) {
+        BloomFilter next = new BloomFilter(expectedEntries, falsePositiveRate);
+        building = next;
+        source.accept(next::put);
+        current = next;
+        building = null;
+    }
+}
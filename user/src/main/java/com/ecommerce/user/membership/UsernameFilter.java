@@ -0,0 +1,54 @@
+package com.ecommerce.user.membership;
+
+import com.ecommerce.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bloom filter over registered usernames, built from the users table at
+ * startup and updated on registration.
+ * A username taken through another instance since startup may be reported
+ * as free, so callers must still rely on the primary key to reject duplicates.
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private final UserRepository userRepository;
+    private final RebuildableBloomFilter filter;
+
+    public UsernameFilter(UserRepository userRepository,
+                          @Value("${membership.username.expected-entries:100000}") long expectedEntries,
+                          @Value("${membership.username.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.filter = new RebuildableBloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * Build the filter from the users table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        filter.rebuild(sink -> {
+            List<String> usernames = userRepository.findAllUsernames();
+            usernames.forEach(username -> sink.accept(BloomFilter.hash(username)));
+            log.info("Loaded {} usernames into the membership filter", usernames.size());
+        });
+    }
+
+    /**
+     * @return false if the username is definitely not registered
+     */
+    public boolean mightExist(String username) {
+        return filter.mightContain(BloomFilter.hash(username));
+    }
+
+    public void add(String username) {
+        filter.put(BloomFilter.hash(username));
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.user.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types the API accepts and returns. JSON comes first, so it stays
+ * the default; internal callers can ask for CBOR or Smile instead.
+ */
+public final class ApiMediaTypes {
+
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private ApiMediaTypes() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.user.monitoring;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Publishes hikaricp.connections.saturation: connections in use plus
+ * threads waiting for one, over the maximum pool size. Below 1 the pool
+ * has headroom; above 1 requests are queueing for a connection. Hikari's
+ * own meters (active, pending, max, acquire) break the number down.
+ */
+@Component
+public class ConnectionPoolMetrics {
+
+    public ConnectionPoolMetrics(DataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry)
+            throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return;
+        }
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        // Hikari names an unnamed pool only when it starts
+        Tags tags = pool.getPoolName() == null ? Tags.empty() : Tags.of("pool", pool.getPoolName());
+        meterRegistry.ifAvailable(registry -> Gauge.builder("hikaricp.connections.saturation", pool,
+                        ConnectionPoolMetrics::saturation)
+                .tags(tags)
+                .description("Active plus pending connections over the maximum pool size")
+                .register(registry));
+    }
+
+    static double saturation(HikariDataSource pool) {
+        // The pool starts with the first connection request
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean == null) {
+            return 0;
+        }
+        return (double) (mxBean.getActiveConnections() + mxBean.getThreadsAwaitingConnection())
+                / pool.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.user.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource wrapper that times every statement executed through its
+ * connections and reports it to {@link QueryStatistics}.
+ * Rows are counted as the caller iterates the result set, so the
+ * statistics reflect what the application actually read.
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private final QueryStatistics queryStatistics;
+
+    public MonitoredDataSource(DataSource targetDataSource, QueryStatistics queryStatistics) {
+        super(targetDataSource);
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> wrapStatement(result, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> wrapStatement(result, Statement.class, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Object wrapStatement(Object statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, preparedSql));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    /**
+     * Tracks bound parameters and times execute* calls for one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String preparedSql;
+        private final List<Object> parameters = new ArrayList<>();
+
+        private StatementHandler(Object target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+
+            if (!name.startsWith("execute")) {
+                return MonitoredDataSource.invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String statementSql
+                    ? statementSql
+                    : preparedSql;
+            long start = System.nanoTime();
+            Object result = MonitoredDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            if (sql == null) {
+                return result;
+            }
+            QueryStatistics.Entry entry = queryStatistics.record(sql, parameters, elapsed, obtainTargetDataSource());
+            if (entry == null) {
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                return wrapResultSet(resultSet, entry);
+            }
+            if (result instanceof Number updateCount) {
+                entry.addRows(updateCount.longValue());
+            }
+            return result;
+        }
+
+        private void bindParameter(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, QueryStatistics.Entry entry) {
+            long[] rows = new long[1];
+            boolean[] reported = new boolean[1];
+            return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        Object result = MonitoredDataSource.invoke(resultSet, method, args);
+                        if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                            rows[0]++;
+                        } else if (method.getName().equals("close") && !reported[0]) {
+                            reported[0] = true;
+                            entry.addRows(rows[0]);
+                        }
+                        return result;
+                    });
+        }
+    }
+}
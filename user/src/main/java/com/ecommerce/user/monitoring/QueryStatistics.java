@@ -0,0 +1,213 @@
+package com.ecommerce.user.monitoring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates JDBC statement executions by fingerprint (SQL with literals
+ * and IN-lists collapsed) and captures the execution plan of statements
+ * slower than the configured threshold.
+ * Plans are captured asynchronously on a dedicated connection so the
+ * request that triggered the capture is not slowed down further.
+ */
+@Slf4j
+@Component
+public class QueryStatistics implements DisposableBean {
+
+    private static final int MAX_FINGERPRINTS = 1000;
+    // Several raw statements (inline literals, IN-list sizes) share a fingerprint
+    private static final int MAX_RAW_STATEMENTS = 4 * MAX_FINGERPRINTS;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Raw SQL to fingerprint; prepared statements reuse the same string, so
+    // normalization only runs the first time a statement is seen
+    private final Cache<String, String> fingerprints = Caffeine.newBuilder()
+            .maximumSize(MAX_RAW_STATEMENTS)
+            .executor(Runnable::run)
+            .build();
+
+    private final long thresholdNanos;
+    private final boolean explainEnabled;
+
+    // Single worker with a small queue: plans are best-effort and dropped under load
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16),
+            runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public QueryStatistics(@Value("${monitoring.slow-query.threshold-ms:200}") long thresholdMillis,
+                           @Value("${monitoring.slow-query.explain-enabled:true}") boolean explainEnabled) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explainEnabled = explainEnabled;
+    }
+
+    /**
+     * Record one statement execution.
+     *
+     * @param sql        the SQL as sent to the driver
+     * @param parameters the bound parameters (index 0 is parameter 1), may be empty
+     * @param nanos      the execution time
+     * @param dataSource the unmonitored data source used to capture plans
+     * @return the entry the execution was recorded against, or null when the
+     *         fingerprint table is full
+     */
+    Entry record(String sql, List<Object> parameters, long nanos, DataSource dataSource) {
+        String fingerprint = fingerprints.get(sql, QueryStatistics::fingerprint);
+        Entry existing = entries.get(fingerprint);
+        if (existing == null && entries.size() >= MAX_FINGERPRINTS) {
+            return null;
+        }
+        Entry entry = existing != null ? existing : entries.computeIfAbsent(fingerprint, Entry::new);
+
+        entry.count.increment();
+        entry.totalNanos.add(nanos);
+        long previousMax = entry.maxNanos.getAndAccumulate(nanos, Math::max);
+
+        if (nanos >= thresholdNanos) {
+            entry.slowCount.increment();
+            // Capture once per fingerprint, then again whenever it gets slower
+            if (explainEnabled && (entry.plan == null || nanos > previousMax) && isSelect(sql)) {
+                List<Object> boundParameters = new ArrayList<>(parameters);
+                explainExecutor.execute(() -> capturePlan(entry, sql, boundParameters, dataSource));
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Current statistics, most expensive (total time) first.
+     */
+    public List<QueryStatisticsSnapshot> snapshot() {
+        return entries.values().stream()
+                .map(Entry::toSnapshot)
+                .sorted(Comparator.comparingDouble(QueryStatisticsSnapshot::getTotalMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Clear all recorded statistics and plans.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?+)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private void capturePlan(Entry entry, String sql, List<Object> parameters, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                entry.plan = formatPlan(resultSet);
+            }
+        } catch (SQLException ex) {
+            log.debug("Could not capture plan for [{}]", entry.fingerprint, ex);
+        }
+    }
+
+    private static String formatPlan(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        StringBuilder plan = new StringBuilder();
+        while (resultSet.next()) {
+            if (!plan.isEmpty()) {
+                plan.append('\n');
+            }
+            if (metaData.getColumnCount() == 1) {
+                // H2 returns the whole plan as a single text column
+                plan.append(resultSet.getString(1));
+                continue;
+            }
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                if (column > 1) {
+                    plan.append(", ");
+                }
+                plan.append(metaData.getColumnLabel(column)).append('=').append(resultSet.getString(column));
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Mutable per-fingerprint counters.
+     */
+    static final class Entry {
+
+        private final String fingerprint;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private volatile String plan;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void addRows(long rowCount) {
+            rows.add(rowCount);
+        }
+
+        private QueryStatisticsSnapshot toSnapshot() {
+            return QueryStatisticsSnapshot.builder()
+                    .fingerprint(fingerprint)
+                    .count(count.sum())
+                    .slowCount(slowCount.sum())
+                    .totalMillis(totalNanos.sum() / 1_000_000.0)
+                    .maxMillis(maxNanos.get() / 1_000_000.0)
+                    .rows(rows.sum())
+                    .plan(plan)
+                    .build();
+        }
+    }
+}
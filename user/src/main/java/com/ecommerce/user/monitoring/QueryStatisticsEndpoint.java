@@ -0,0 +1,32 @@
+package com.ecommerce.user.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Management endpoint exposing per-statement statistics and captured plans.
+ * GET /actuator/queries lists statements by total time;
+ * DELETE /actuator/queries clears them (e.g. between load-test runs).
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueryStatisticsEndpoint {
+
+    private final QueryStatistics queryStatistics;
+
+    @ReadOperation
+    public List<QueryStatisticsSnapshot> queries() {
+        return queryStatistics.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
@@ -2,10 +2,14 @@ package com.ecommerce.user.repository;
 
 import com.ecommerce.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
 
-    java.util.Optional<User> findFirstByToken(String token);
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
 }
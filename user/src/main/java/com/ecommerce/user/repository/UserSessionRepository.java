@@ -0,0 +1,19 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.entity.UserSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+
+    List<UserSession> findAllByExpiredAtGreaterThan(Long now);
+
+    @Query("select s.tokenHash from UserSession s where s.expiredAt <= :now")
+    List<String> findExpiredTokenHashes(@Param("now") Long now, Pageable pageable);
+}
@@ -2,6 +2,8 @@ package com.ecommerce.user.resolver;
 
 import com.ecommerce.user.entity.User;
 import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.session.Session;
+import com.ecommerce.user.session.SessionStore;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.MethodParameter;
@@ -17,6 +19,9 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SessionStore sessionStore;
+
     @Override
     public boolean supportsParameter(MethodParameter parameter) {
         return User.class.equals(parameter.getParameterType());
@@ -32,14 +37,10 @@ public class UserArgumentResolver implements HandlerMethodArgumentResolver {
             return null;
         }
 
-        User user = userRepository.findFirstByToken(token).orElse(null);
-
-        if (user != null) {
-            if (user.getTokenExpiredAt() < System.currentTimeMillis()) {
-                return null;
-            }
-        }
-
-        return user;
+        // Expired sessions are swept from the store in the background
+        return sessionStore.find(token)
+                .map(Session::username)
+                .flatMap(userRepository::findById)
+                .orElse(null);
     }
 }
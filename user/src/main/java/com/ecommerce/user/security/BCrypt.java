@@ -1,5 +1,7 @@
 package com.ecommerce.user.security;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -7,14 +9,22 @@ public class BCrypt {
 
     private static final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    // bcrypt dominates login and register latency, so both operations are timed
+    private static final Timer hashTimer = Timer.builder("user.password.bcrypt")
+            .tag("operation", "hash")
+            .register(Metrics.globalRegistry);
+
+    private static final Timer verifyTimer = Timer.builder("user.password.bcrypt")
+            .tag("operation", "verify")
+            .register(Metrics.globalRegistry);
+
     // Hash the password
     public static String hash(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return hashTimer.record(() -> passwordEncoder.encode(rawPassword));
     }
 
     // Validate raw password with stored hashed password
     public static boolean verify(String rawPassword, String hashedPassword) {
-        return passwordEncoder.matches(rawPassword, hashedPassword);
+        return Boolean.TRUE.equals(verifyTimer.record(() -> passwordEncoder.matches(rawPassword, hashedPassword)));
     }
 }
-
@@ -4,16 +4,18 @@ import com.ecommerce.user.entity.User;
 import com.ecommerce.user.model.LoginUserRequest;
 import com.ecommerce.user.model.TokenResponse;
 import com.ecommerce.user.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.ecommerce.user.security.BCrypt;
+import com.ecommerce.user.session.Session;
+import com.ecommerce.user.session.SessionStore;
+import com.ecommerce.user.session.SessionTokens;
+import com.ecommerce.user.throttle.RateLimiter;
+import com.ecommerce.user.throttle.ThrottleProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCrypt;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -24,22 +26,29 @@ public class AuthService {
     @Autowired
     private ValidationService validationService;
 
-    @Transactional
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private SessionStore sessionStore;
+
     public TokenResponse login(LoginUserRequest request) {
         validationService.validate(request);
+        // Throttle per account before paying for the lookup and bcrypt
+        rateLimiter.acquire("login", ThrottleProperties.RateLimitKey.USERNAME, request.getUsername());
 
         User user = userRepository.findById(request.getUsername())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Username or Password wrong"));
 
-        if (BCrypt.checkpw(request.getPassword(), user.getPassword())) {
+        if (BCrypt.verify(request.getPassword(), user.getPassword())) {
 
-            user.setToken(UUID.randomUUID().toString());
-            user.setTokenExpiredAt(next30Days());
-            userRepository.save(user);
+            // Persisted asynchronously; the session is usable as soon as it is opened
+            String token = SessionTokens.newToken();
+            Session session = sessionStore.open(token, user.getUsername(), next30Days());
 
             return TokenResponse.builder()
-                    .token(user.getToken())
-                    .expiredAt(String.valueOf(user.getTokenExpiredAt()))
+                    .token(token)
+                    .expiredAt(String.valueOf(session.expiredAt()))
                     // .expiredAt(user.getTokenExpiredAt())
                     .build();
         } else {
@@ -51,11 +60,7 @@ public class AuthService {
         return System.currentTimeMillis() + (1000 * 16 * 24 * 30);
     }
 
-    @Transactional
-    public void logout(User user) {
-        user.setToken(null);
-        user.setTokenExpiredAt(null);
-
-        userRepository.save(user);
+    public void logout(String token) {
+        sessionStore.close(token);
     }
 }
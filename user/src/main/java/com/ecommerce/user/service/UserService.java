@@ -1,15 +1,20 @@
 package com.ecommerce.user.service;
 
 import com.ecommerce.user.entity.User;
+import com.ecommerce.user.membership.UsernameFilter;
 import com.ecommerce.user.model.RegisterUserRequest;
 import com.ecommerce.user.model.UpdateUserRequest;
 import com.ecommerce.user.model.UserResponse;
 import com.ecommerce.user.repository.UserRepository;
 import com.ecommerce.user.security.BCrypt;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -27,12 +32,20 @@ public class UserService {
     @Autowired
     private ValidationService validationService;
 
+    @Autowired
+    private UsernameFilter usernameFilter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
 
     public void register(RegisterUserRequest request) {
         validationService.validate(request);
 
-        if (userRepository.existsById(request.getUsername())) {
+        // Only names the filter might know need the existence check, which is a primary key lookup
+        if (usernameFilter.mightExist(request.getUsername())
+                && userRepository.existsById(request.getUsername())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists");
         }
         User user = new User();
@@ -40,7 +53,16 @@ public class UserService {
         user.setPassword(BCrypt.hash(request.getPassword()));
         user.setName(request.getName());
 
-        userRepository.save(user);
+        // Persisting checks the second-level cache for an entity with the same ID and rejects a cached
+        // one as detached. Bypass it so a concurrent registration is caught by the primary key instead.
+        entityManager.setProperty("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+        usernameFilter.add(user.getUsername());
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            // Registered meanwhile, possibly through another instance
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists");
+        }
     }
 
     public UserResponse get(User user) {
@@ -0,0 +1,22 @@
+package com.ecommerce.user.session;
+
+/**
+ * An authenticated session as held in memory.
+ *
+ * @param tokenHash SHA-256 of the API token, hex encoded
+ * @param username  the user the token belongs to
+ * @param expiredAt expiry, epoch milliseconds
+ */
+public record Session(String tokenHash, String username, long expiredAt) {
+
+    public boolean isExpired(long nowMillis) {
+        return expiredAt < nowMillis;
+    }
+
+    /**
+     * The 64-bit key this session is indexed by.
+     */
+    public long key() {
+        return SessionTokens.key(tokenHash);
+    }
+}
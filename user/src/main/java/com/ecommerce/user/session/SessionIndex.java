@@ -0,0 +1,201 @@
+package com.ecommerce.user.session;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash table from 64-bit token-hash keys to sessions.
+ * Keys live in a primitive long[] (no boxing, one array probe per lookup)
+ * and reads are lock-free in the common case via optimistic stamps.
+ * Key 0 marks an empty slot, so it is remapped to 1 on the way in; the
+ * full token hash stored in the session disambiguates the remapping.
+ */
+public class SessionIndex {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys;
+    private Session[] values;
+    private int size;
+
+    public SessionIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Session[capacity];
+    }
+
+    /**
+     * Find the session for the token hash.
+     */
+    public Session get(String tokenHash) {
+        long key = slotKey(SessionTokens.key(tokenHash));
+
+        long stamp = lock.tryOptimisticRead();
+        long[] currentKeys = keys;
+        Session[] currentValues = values;
+        // A concurrent resize can expose the new keys with the old values; such a pair is re-read under the lock
+        boolean consistent = currentKeys.length == currentValues.length;
+        Session session = consistent ? probe(currentKeys, currentValues, key) : null;
+        if (!consistent || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                session = probe(keys, values, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return session != null && session.tokenHash().equals(tokenHash) ? session : null;
+    }
+
+    /**
+     * Store the session under its key.
+     *
+     * @return the session previously stored under the same key, or null
+     */
+    public Session put(Session session) {
+        long key = slotKey(session.key());
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                resize(keys.length << 1);
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            Session previous = values[slot];
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = session;
+            return previous;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the session for the token hash.
+     *
+     * @return the removed session, or null
+     */
+    public Session remove(String tokenHash) {
+        long key = slotKey(SessionTokens.key(tokenHash));
+        long stamp = lock.writeLock();
+        try {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key && values[slot].tokenHash().equals(tokenHash)) {
+                    Session removed = values[slot];
+                    deleteSlot(slot);
+                    return removed;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Visit every session. Writers wait until the visit is done.
+     */
+    public void forEach(Consumer<Session> action) {
+        long stamp = lock.readLock();
+        try {
+            for (Session session : values) {
+                if (session != null) {
+                    action.accept(session);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int currentSize = size;
+        return lock.validate(stamp) ? currentSize : readSizeLocked();
+    }
+
+    private int readSizeLocked() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static Session probe(long[] keys, Session[] values, long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        // Bounded so a torn optimistic read can never spin forever
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[slot];
+            if (current == 0) {
+                return null;
+            }
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Session[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        Session[] newValues = new Session[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (newKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static long slotKey(long key) {
+        return key == 0 ? 1 : key;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,325 @@
+package com.ecommerce.user.session;
+
+import com.ecommerce.user.cache.TwoLevelCache;
+import com.ecommerce.user.entity.UserSession;
+import com.ecommerce.user.membership.NegativeCache;
+import com.ecommerce.user.membership.RebuildableBloomFilter;
+import com.ecommerce.user.repository.UserSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session state with an in-memory primary copy and asynchronous,
+ * batched persistence to the sessions table.
+ * Live sessions are held in a {@link SessionIndex} keyed by token hash and
+ * loaded at startup, so token lookups normally do not touch the database.
+ * Opening and closing a session only touches memory; the latest change per
+ * token is kept in a pending map and flushed in batches by a scheduled task.
+ * Expiry deadlines are tracked in a {@link TimingWheel}; a reaper evicts
+ * sessions as they expire and queues their rows for deletion, so neither
+ * the index nor the table accumulates dead tokens.
+ * Closed tokens are remembered as revoked until their deletion is
+ * persisted, so the database fallback cannot resurrect them.
+ * Unknown tokens are answered from memory too: misses that did reach the
+ * database are cached for a short time. A single instance can also enable
+ * a Bloom filter over the tokens it knows, which keeps definite misses
+ * away from the database; it is off by default, since it cannot see
+ * sessions opened elsewhere that are not in the session cache.
+ * <p>
+ * With several instances, new sessions are also written to the shared
+ * session cache, so other instances find them before they are flushed,
+ * and closing a session invalidates it there, which makes the other
+ * instances drop it from memory.
+ */
+@Slf4j
+@Component
+public class SessionStore {
+
+    private final UserSessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+
+    private final SessionIndex index;
+    private final TimingWheel<Session> expiries;
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final Set<String> revokedTokenHashes = ConcurrentHashMap.newKeySet();
+    private final RebuildableBloomFilter tokenFilter;
+    private final NegativeCache misses;
+    private final TwoLevelCache<Session> sessionCache;
+    private final Counter reaped;
+
+    public SessionStore(UserSessionRepository sessionRepository, PlatformTransactionManager transactionManager,
+                        @Value("${session.flush-batch-size:500}") int flushBatchSize,
+                        @Value("${session.expected-sessions:10000}") int expectedSessions,
+                        @Value("${session.reaper.tick-ms:1000}") long reaperTickMillis,
+                        @Value("${session.token-filter.enabled:false}") boolean tokenFilterEnabled,
+                        @Value("${session.token-filter.false-positive-rate:0.01}") double tokenFilterFalsePositiveRate,
+                        @Value("${session.negative-cache.ttl-ms:10000}") long negativeCacheTtlMillis,
+                        @Value("${session.negative-cache.max-entries:100000}") int negativeCacheMaxEntries,
+                        TwoLevelCache<Session> sessionCache,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = flushBatchSize;
+        this.index = new SessionIndex(expectedSessions);
+        this.expiries = new TimingWheel<>(reaperTickMillis, System.currentTimeMillis());
+        this.tokenFilter = tokenFilterEnabled
+                ? new RebuildableBloomFilter(expectedSessions, tokenFilterFalsePositiveRate)
+                : null;
+        this.misses = new NegativeCache(negativeCacheTtlMillis, negativeCacheMaxEntries);
+        this.sessionCache = sessionCache;
+        sessionCache.onInvalidation(this::closedElsewhere);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("user.session.active", index, SessionIndex::size).register(registry);
+            Gauge.builder("user.session.pending.writes", pendingWrites, Map::size).register(registry);
+            Gauge.builder("user.session.scheduled.expiries", expiries, TimingWheel::size).register(registry);
+            Gauge.builder("user.session.negative.cached", misses, NegativeCache::size).register(registry);
+            this.reaped = Counter.builder("user.session.reaped").register(registry);
+        } else {
+            this.reaped = null;
+        }
+    }
+
+    /**
+     * Load the live sessions into memory and purge the rows that expired
+     * while no instance was running.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long now = System.currentTimeMillis();
+        List<UserSession> sessions = sessionRepository.findAllByExpiredAtGreaterThan(now);
+        sessions.forEach(session -> track(toSession(session)));
+        log.info("Loaded {} live sessions", sessions.size());
+        rebuildTokenFilter();
+
+        int purged = 0;
+        List<String> expired;
+        do {
+            expired = sessionRepository.findExpiredTokenHashes(now, PageRequest.ofSize(flushBatchSize));
+            if (!expired.isEmpty()) {
+                List<String> batch = expired;
+                transactionTemplate.executeWithoutResult(status -> sessionRepository.deleteAllByIdInBatch(batch));
+                purged += batch.size();
+            }
+        } while (expired.size() == flushBatchSize);
+        if (purged > 0) {
+            log.info("Purged {} expired sessions", purged);
+        }
+    }
+
+    /**
+     * Start a new session for the user. The user's other sessions stay valid.
+     *
+     * @param token the raw token handed to the client
+     */
+    public Session open(String token, String username, long expiredAt) {
+        Session session = new Session(SessionTokens.hash(token), username, expiredAt);
+        track(session);
+        pendingWrites.put(session.tokenHash(), new PendingWrite(session));
+        sessionCache.put(session.tokenHash(), session,
+                Duration.ofMillis(Math.max(0, expiredAt - System.currentTimeMillis())));
+        return session;
+    }
+
+    /**
+     * End the session identified by the raw token.
+     */
+    public void close(String token) {
+        String tokenHash = SessionTokens.hash(token);
+        revokedTokenHashes.add(tokenHash);
+        index.remove(tokenHash);
+        pendingWrites.put(tokenHash, new PendingWrite(null));
+        sessionCache.invalidate(tokenHash);
+    }
+
+    /**
+     * Look up a live session by raw token. Sessions missing from memory
+     * (e.g. opened by another instance) are read from the session cache,
+     * or else the database, once and kept.
+     */
+    public Optional<Session> find(String token) {
+        String tokenHash = SessionTokens.hash(token);
+        long now = System.currentTimeMillis();
+
+        Session session = index.get(tokenHash);
+        if (session != null) {
+            // The reaper removes expired sessions; this only covers the last tick
+            return session.isExpired(now) ? Optional.empty() : Optional.of(session);
+        }
+        if (revokedTokenHashes.contains(tokenHash)) {
+            return Optional.empty();
+        }
+        if (misses.contains(tokenHash)) {
+            return Optional.empty();
+        }
+
+        Session stored = sessionCache.get(tokenHash, () -> loadStored(tokenHash));
+        if (stored == null) {
+            misses.add(tokenHash);
+            return Optional.empty();
+        }
+        if (stored.isExpired(now)) {
+            // Not tracked by the reaper (e.g. left behind by another instance)
+            expire(tokenHash);
+            return Optional.empty();
+        }
+        track(stored);
+        return Optional.of(stored);
+    }
+
+    /**
+     * Evict the sessions that expired since the last run and queue their
+     * rows for deletion. The deletes go out with the next flush, in
+     * batches of the flush batch size.
+     */
+    @Scheduled(fixedDelayString = "${session.reaper.interval-ms:1000}")
+    public void reapExpired() {
+        int count = 0;
+        for (Session session : expiries.advance(System.currentTimeMillis())) {
+            // Sessions closed before they expired are already gone
+            if (index.remove(session.tokenHash()) != null) {
+                expire(session.tokenHash());
+                count++;
+            }
+        }
+        if (count > 0 && reaped != null) {
+            reaped.increment(count);
+        }
+    }
+
+    /**
+     * Rebuild the token filter from the live sessions, dropping the tokens
+     * that were closed or have expired since the last build.
+     */
+    @Scheduled(initialDelayString = "${session.token-filter.rebuild-interval-ms:600000}",
+            fixedDelayString = "${session.token-filter.rebuild-interval-ms:600000}")
+    public synchronized void rebuildTokenFilter() {
+        if (tokenFilter != null) {
+            tokenFilter.rebuild(sink -> index.forEach(session -> sink.accept(session.key())));
+        }
+    }
+
+    /**
+     * Persist pending session changes, one batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${session.flush-interval-ms:200}")
+    public void flush() {
+        while (!pendingWrites.isEmpty()) {
+            Map<String, PendingWrite> batch = new LinkedHashMap<>();
+            for (Map.Entry<String, PendingWrite> entry : pendingWrites.entrySet()) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= flushBatchSize) {
+                    break;
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(batch));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to persist {} session changes, will retry", batch.size(), ex);
+                return;
+            }
+
+            batch.forEach((tokenHash, write) -> {
+                // A newer change that arrived meanwhile stays pending
+                if (pendingWrites.remove(tokenHash, write) && write.session() == null) {
+                    revokedTokenHashes.remove(tokenHash);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(Map<String, PendingWrite> batch) {
+        List<UserSession> inserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        batch.forEach((tokenHash, write) -> {
+            Session session = write.session();
+            if (session != null) {
+                inserts.add(new UserSession(session.tokenHash(), session.username(), session.expiredAt()));
+            } else {
+                deletes.add(tokenHash);
+            }
+        });
+        // Inserts are JDBC-batched at commit; deletes go out as a single statement
+        sessionRepository.saveAll(inserts);
+        if (!deletes.isEmpty()) {
+            sessionRepository.deleteAllByIdInBatch(deletes);
+        }
+    }
+
+    // The filter only guards the database: sessions opened elsewhere are found in the session cache first
+    private Session loadStored(String tokenHash) {
+        if (tokenFilter != null && !tokenFilter.mightContain(SessionTokens.key(tokenHash))) {
+            return null;
+        }
+        return sessionRepository.findById(tokenHash).map(SessionStore::toSession).orElse(null);
+    }
+
+    // Closed on another instance. Its delete may reach the database before this
+    // instance flushes the insert, so this instance deletes the row again itself
+    private void closedElsewhere(String tokenHash) {
+        if (tokenHash != null) {
+            index.remove(tokenHash);
+            expire(tokenHash);
+            misses.add(tokenHash);
+        }
+    }
+
+    // Rejected from memory until the row is deleted
+    private void expire(String tokenHash) {
+        revokedTokenHashes.add(tokenHash);
+        pendingWrites.put(tokenHash, new PendingWrite(null));
+    }
+
+    private void track(Session session) {
+        Session previous = index.put(session);
+        if (tokenFilter != null) {
+            tokenFilter.put(session.key());
+        }
+        misses.remove(session.tokenHash());
+        // Concurrent first lookups of the same token load and track it more than once; schedule it once
+        if (!session.equals(previous)) {
+            expiries.schedule(session, session.expiredAt());
+        }
+    }
+
+    private static Session toSession(UserSession entity) {
+        return new Session(entity.getTokenHash(), entity.getUsername(), entity.getExpiredAt());
+    }
+
+    /**
+     * Latest unpersisted change for a token.
+     *
+     * @param session the session to insert, or null to delete it
+     */
+    private record PendingWrite(Session session) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.user.session;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Token generation and hashing. Tokens are only ever stored hashed.
+ */
+public final class SessionTokens {
+
+    private SessionTokens() {
+    }
+
+    public static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * SHA-256 of the token, hex encoded.
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * The first 64 bits of the token hash, used as the in-memory index key.
+     */
+    public static long key(String tokenHash) {
+        return Long.parseUnsignedLong(tokenHash, 0, 16, 16);
+    }
+}
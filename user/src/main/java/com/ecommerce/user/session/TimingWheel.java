@@ -0,0 +1,115 @@
+package com.ecommerce.user.session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for expiry deadlines.
+ * Level 0 has one bucket per tick; each higher level covers a whole
+ * revolution of the level below per bucket. Scheduling is O(1), and
+ * advancing only touches the buckets whose time has come: entries in a
+ * higher level are cascaded into the lower levels as their bucket comes
+ * due, so a long-lived deadline moves at most once per level.
+ * Deadlines beyond the top level are parked there and re-examined each
+ * time their bucket comes round.
+ *
+ * @param <T> the scheduled item
+ */
+public class TimingWheel<T> {
+
+    private static final int BUCKET_BITS = 6;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Deadline<T>>> buckets = new ArrayList<>(LEVELS * BUCKETS);
+
+    // Guarded by this
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution of the wheel; deadlines fire up to one tick late
+     * @param nowMillis  the current time
+     */
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * BUCKETS; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedule an item to be returned by {@link #advance(long)} once the deadline has passed.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // Round up so an item never fires before its deadline
+        place(new Deadline<>(item, Math.floorDiv(deadlineMillis, tickMillis) + 1));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to the given time.
+     *
+     * @return the items whose deadline has passed, in no particular order
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade top-down so entries moved out of a level can still land in the buckets below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BUCKET_BITS * level)) - 1)) == 0) {
+                    cascade(level, expired);
+                }
+            }
+            cascade(0, expired);
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(int level, List<T> expired) {
+        List<Deadline<T>> bucket = bucket(level, currentTick);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Deadline<T>> entries = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Deadline<T> entry : entries) {
+            if (entry.tick() <= currentTick) {
+                expired.add(entry.item());
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Deadline<T> entry) {
+        long delta = Math.max(0, entry.tick() - currentTick);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BUCKET_BITS * (level + 1))) {
+            level++;
+        }
+        // Already due: fire on the next tick
+        long tick = delta == 0 ? currentTick + 1 : entry.tick();
+        bucket(level, tick).add(entry);
+    }
+
+    private List<Deadline<T>> bucket(int level, long tick) {
+        int index = (int) ((tick >>> (BUCKET_BITS * level)) & (BUCKETS - 1));
+        return buckets.get(level * BUCKETS + index);
+    }
+
+    private record Deadline<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.user.throttle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as GCRA (generic cell rate algorithm):
+ * the whole bucket state is a single "theoretical arrival time", updated
+ * with compare-and-set. A bucket whose arrival time is in the past is full.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity        the maximum burst, in requests
+     * @param refillPerSecond the sustained rate, in requests per second
+     * @param nowNanos        the current time
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @param nowNanos the current time
+     * @return 0 if a token was taken, otherwise the nanos until one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * How long an empty bucket takes to refill completely. A bucket left
+     * alone that long after its last use is full, so dropping it loses nothing.
+     */
+    public Duration getRefillTime() {
+        return Duration.ofNanos(burstNanos);
+    }
+}
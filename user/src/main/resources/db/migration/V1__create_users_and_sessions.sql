@@ -0,0 +1,18 @@
+CREATE TABLE users (
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    name     VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (username)
+);
+
+-- Sessions are looked up by token hash, the key, and the reaper sweeps
+-- them by expiry
+CREATE TABLE sessions (
+    token_hash VARCHAR(64)  NOT NULL,
+    username   VARCHAR(100) NOT NULL,
+    expired_at BIGINT       NOT NULL,
+    CONSTRAINT pk_sessions PRIMARY KEY (token_hash)
+);
+
+CREATE INDEX idx_sessions_username ON sessions (username);
+CREATE INDEX idx_sessions_expired_at ON sessions (expired_at);
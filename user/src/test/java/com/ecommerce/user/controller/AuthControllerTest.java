@@ -3,9 +3,14 @@ package com.ecommerce.user.controller;
 import com.ecommerce.user.model.LoginUserRequest;
 import com.ecommerce.user.model.TokenResponse;
 import com.ecommerce.user.model.WebResponse;
+import com.ecommerce.user.entity.UserSession;
 import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.repository.UserSessionRepository;
+import com.ecommerce.user.session.SessionStore;
+import com.ecommerce.user.session.SessionTokens;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,14 +34,22 @@ class AuthControllerTest {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private UserSessionRepository sessionRepository;
+
         @BeforeEach
         void setUp() {
+                sessionStore.flush();
+                sessionRepository.deleteAll();
                 userRepository.deleteAll();
         }
 
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private SessionStore sessionStore;
+
         @Test
         void loginSuccess() throws Exception {
                 com.ecommerce.user.entity.User user = new com.ecommerce.user.entity.User();
@@ -68,6 +81,39 @@ class AuthControllerTest {
                                 });
         }
 
+        @Test
+        void loginSuccessCbor() throws Exception {
+                com.ecommerce.user.entity.User user = new com.ecommerce.user.entity.User();
+                user.setName("Test");
+                user.setUsername("test");
+                user.setPassword(org.springframework.security.crypto.bcrypt.BCrypt.hashpw("test",
+                                org.springframework.security.crypto.bcrypt.BCrypt.gensalt()));
+                userRepository.save(user);
+
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("test");
+                request.setPassword("test");
+                CBORMapper cborMapper = new CBORMapper();
+
+                mockMvc.perform(
+                                post("/api/auth/login")
+                                                .accept(MediaType.APPLICATION_CBOR)
+                                                .contentType(MediaType.APPLICATION_CBOR)
+                                                .content(cborMapper.writeValueAsBytes(request)))
+                                .andExpectAll(
+                                                status().isOk(),
+                                                content().contentType(MediaType.APPLICATION_CBOR))
+                                .andDo(result -> {
+                                        WebResponse<TokenResponse> response = cborMapper.readValue(
+                                                        result.getResponse().getContentAsByteArray(),
+                                                        new TypeReference<>() {
+                                                        });
+                                        assertNull(response.getErrors());
+                                        assertNotNull(response.getData().getToken());
+                                        assertNotNull(response.getData().getExpiredAt());
+                                });
+        }
+
         @Test
         void logoutSuccess() throws Exception {
                 com.ecommerce.user.entity.User user = new com.ecommerce.user.entity.User();
@@ -75,9 +121,9 @@ class AuthControllerTest {
                 user.setUsername("test");
                 user.setPassword(org.springframework.security.crypto.bcrypt.BCrypt.hashpw("test",
                                 org.springframework.security.crypto.bcrypt.BCrypt.gensalt()));
-                user.setToken("test");
-                user.setTokenExpiredAt(System.currentTimeMillis() + 10000000000L);
                 userRepository.save(user);
+                sessionRepository.save(new UserSession(SessionTokens.hash("test"), "test",
+                                System.currentTimeMillis() + 10000000000L));
 
                 mockMvc.perform(
                                 delete("/api/auth/logout")
@@ -93,14 +139,57 @@ class AuthControllerTest {
                                         assertNull(response.getErrors());
                                         assertEquals("success", response.getData());
 
-                                        com.ecommerce.user.entity.User userDb = userRepository.findById("test")
-                                                        .orElse(null);
-                                        assertNotNull(userDb);
-                                        assertNull(userDb.getToken());
-                                        assertNull(userDb.getTokenExpiredAt());
+                                        // Session writes are persisted asynchronously
+                                        sessionStore.flush();
+                                        assertFalse(sessionRepository.existsById(SessionTokens.hash("test")));
                                 });
         }
 
+        @Test
+        void loginTwiceKeepsBothSessions() throws Exception {
+                com.ecommerce.user.entity.User user = new com.ecommerce.user.entity.User();
+                user.setName("Multi");
+                user.setUsername("multi");
+                user.setPassword(org.springframework.security.crypto.bcrypt.BCrypt.hashpw("test",
+                                org.springframework.security.crypto.bcrypt.BCrypt.gensalt()));
+                userRepository.save(user);
+
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("multi");
+                request.setPassword("test");
+
+                String[] tokens = new String[2];
+                for (int i = 0; i < tokens.length; i++) {
+                        String content = mockMvc.perform(
+                                        post("/api/auth/login")
+                                                        .accept(MediaType.APPLICATION_JSON)
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andExpectAll(
+                                                        status().isOk())
+                                        .andReturn().getResponse().getContentAsString();
+                        WebResponse<TokenResponse> response = objectMapper.readValue(content,
+                                        new TypeReference<>() {
+                                        });
+                        tokens[i] = response.getData().getToken();
+                }
+                assertNotEquals(tokens[0], tokens[1]);
+
+                for (String token : tokens) {
+                        mockMvc.perform(
+                                        get("/api/users/current")
+                                                        .accept(MediaType.APPLICATION_JSON)
+                                                        .header("X-API-TOKEN", token))
+                                        .andExpectAll(
+                                                        status().isOk());
+                }
+
+                sessionStore.flush();
+                for (String token : tokens) {
+                        assertTrue(sessionRepository.existsById(SessionTokens.hash(token)));
+                }
+        }
+
         @Test
         void logoutFailed() throws Exception {
                 mockMvc.perform(
@@ -169,4 +258,37 @@ class AuthControllerTest {
                                 });
         }
 
-}
\ No newline at end of file
+        @Test
+        void loginThrottledByUsername() throws Exception {
+                LoginUserRequest request = new LoginUserRequest();
+                request.setUsername("throttled");
+                request.setPassword("test");
+
+                for (int i = 0; i < 5; i++) {
+                        mockMvc.perform(
+                                        post("/api/auth/login")
+                                                        .accept(MediaType.APPLICATION_JSON)
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(objectMapper.writeValueAsString(request)))
+                                        .andExpectAll(
+                                                        status().isUnauthorized());
+                }
+
+                mockMvc.perform(
+                                post("/api/auth/login")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpectAll(
+                                                status().isTooManyRequests(),
+                                                header().exists("Retry-After"))
+                                .andDo(result -> {
+                                        WebResponse<String> response = objectMapper.readValue(
+                                                        result.getResponse().getContentAsString(),
+                                                        new TypeReference<>() {
+                                                        });
+                                        assertEquals("Too many requests", response.getErrors());
+                                });
+        }
+
+}
@@ -1,11 +1,15 @@
 package com.ecommerce.user.controller;
 
 import com.ecommerce.user.entity.User;
+import com.ecommerce.user.entity.UserSession;
 import com.ecommerce.user.model.RegisterUserRequest;
 import com.ecommerce.user.model.UpdateUserRequest;
 import com.ecommerce.user.model.WebResponse;
 import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.repository.UserSessionRepository;
 import com.ecommerce.user.security.BCrypt;
+import com.ecommerce.user.session.SessionStore;
+import com.ecommerce.user.session.SessionTokens;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -19,6 +23,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 
@@ -38,11 +43,19 @@ class UserControllerTest {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private UserSessionRepository sessionRepository;
+
+        @Autowired
+        private SessionStore sessionStore;
+
         @Autowired
         private ObjectMapper objectMapper;
 
         @BeforeEach
         void setUp() {
+                sessionStore.flush();
+                sessionRepository.deleteAll();
                 userRepository.deleteAll();
                 System.out.println("Users in DB after deleteAll: " + userRepository.count());
         }
@@ -54,11 +67,15 @@ class UserControllerTest {
                 request.setPassword("secret");
                 request.setName("Test");
 
-                mockMvc.perform(
+                MvcResult asyncResult = mockMvc.perform(
                                 post("/api/users")
                                                 .accept(MediaType.APPLICATION_JSON)
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(asyncResult))
                                 .andExpectAll(
                                                 status().isOk())
                                 .andDo(result -> {
@@ -72,6 +89,36 @@ class UserControllerTest {
 
         }
 
+        @Test
+        void testRegisterDuplicate() throws Exception {
+                // Inserted behind the membership filter's back, as another instance would
+                userRepository.save(new User("Prabowo", BCrypt.hash("secret"), "Test"));
+
+                RegisterUserRequest request = new RegisterUserRequest();
+                request.setUsername("Prabowo");
+                request.setPassword("secret");
+                request.setName("Test");
+
+                MvcResult asyncResult = mockMvc.perform(
+                                post("/api/users")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(asyncResult))
+                                .andExpectAll(
+                                                status().isBadRequest())
+                                .andDo(result -> {
+                                        WebResponse<String> response = objectMapper.readValue(
+                                                        result.getResponse().getContentAsString(),
+                                                        new TypeReference<>() {
+                                                        });
+                                        assertEquals("Username already exists", response.getErrors());
+                                });
+        }
+
         @Test
         void testRegisterBadRequest() throws Exception {
                 RegisterUserRequest request = new RegisterUserRequest();
@@ -79,11 +126,15 @@ class UserControllerTest {
                 request.setPassword("");
                 request.setName("");
 
-                mockMvc.perform(
+                MvcResult asyncResult = mockMvc.perform(
                                 post("/api/users")
                                                 .accept(MediaType.APPLICATION_JSON)
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(asyncResult))
                                 .andExpectAll(
                                                 status().isBadRequest())
                                 .andDo(result -> {
@@ -130,15 +181,70 @@ class UserControllerTest {
                                 });
         }
 
+        @Test
+        void getUserTokenExpired() throws Exception {
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hash("test"));
+                user.setName("Test");
+                userRepository.save(user);
+                sessionRepository.save(new UserSession(SessionTokens.hash("expired"), "test",
+                                System.currentTimeMillis() - 1000L));
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "expired"))
+                                .andExpectAll(
+                                                status().isUnauthorized())
+                                .andDo(result -> {
+                                        WebResponse<String> response = objectMapper.readValue(
+                                                        result.getResponse().getContentAsString(),
+                                                        new TypeReference<>() {
+                                                        });
+                                        assertNotNull(response.getErrors());
+
+                                        // The dead row is queued for deletion
+                                        sessionStore.flush();
+                                        assertFalse(sessionRepository.existsById(SessionTokens.hash("expired")));
+                                });
+        }
+
+        @Test
+        void getUserSessionOpenedByAnotherInstance() throws Exception {
+                User user = new User();
+                user.setUsername("test");
+                user.setPassword(BCrypt.hash("test"));
+                user.setName("Test");
+                userRepository.save(user);
+                // Written straight to the table, never seen by this instance's session store
+                sessionRepository.save(new UserSession(SessionTokens.hash("other-instance"), "test",
+                                System.currentTimeMillis() + 10000000000L));
+
+                mockMvc.perform(
+                                get("/api/users/current")
+                                                .accept(MediaType.APPLICATION_JSON)
+                                                .header("X-API-TOKEN", "other-instance"))
+                                .andExpectAll(
+                                                status().isOk())
+                                .andDo(result -> {
+                                        WebResponse<com.ecommerce.user.model.UserResponse> response = objectMapper
+                                                        .readValue(result.getResponse().getContentAsString(),
+                                                                        new TypeReference<>() {
+                                                                        });
+                                        assertEquals("test", response.getData().getUsername());
+                                });
+        }
+
         @Test
         void getUserSuccess() throws Exception {
                 User user = new User();
                 user.setUsername("test");
                 user.setPassword(BCrypt.hash("test"));
                 user.setName("Test");
-                user.setToken("test");
-                user.setTokenExpiredAt(System.currentTimeMillis() + 10000000000L);
                 userRepository.save(user);
+                sessionRepository.save(new UserSession(SessionTokens.hash("test"), "test",
+                                System.currentTimeMillis() + 10000000000L));
 
                 mockMvc.perform(
                                 get("/api/users/current")
@@ -163,20 +269,24 @@ class UserControllerTest {
                 user.setUsername("test");
                 user.setPassword(BCrypt.hash("test"));
                 user.setName("Test");
-                user.setToken("test");
-                user.setTokenExpiredAt(System.currentTimeMillis() + 10000000000L);
                 userRepository.save(user);
+                sessionRepository.save(new UserSession(SessionTokens.hash("test"), "test",
+                                System.currentTimeMillis() + 10000000000L));
 
                 UpdateUserRequest request = new UpdateUserRequest();
                 request.setName("Test Updated");
                 request.setPassword("test1234");
 
-                mockMvc.perform(
+                MvcResult asyncResult = mockMvc.perform(
                                 patch("/api/users/current")
                                                 .accept(MediaType.APPLICATION_JSON)
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .content(objectMapper.writeValueAsString(request))
                                                 .header("X-API-TOKEN", "test"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(asyncResult))
                                 .andExpectAll(
                                                 status().isOk())
                                 .andDo(result -> {
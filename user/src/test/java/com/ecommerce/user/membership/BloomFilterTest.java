@@ -0,0 +1,58 @@
+package com.ecommerce.user.membership;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BloomFilter.
+ */
+class BloomFilterTest {
+
+    private static final int ENTRIES = 10000;
+
+    @Test
+    void mightContain_EveryAddedHash_NoFalseNegatives() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+
+        // Act
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put(BloomFilter.hash("user-" + i));
+        }
+
+        // Assert
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain(BloomFilter.hash("user-" + i)), "user-" + i);
+        }
+    }
+
+    @Test
+    void mightContain_AtExpectedEntries_FalsePositiveRateNearConfigured() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.put(BloomFilter.hash("user-" + i));
+        }
+
+        // Act
+        int probes = 100000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(BloomFilter.hash("unknown-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate > 0.002 && rate < 0.02, "false positive rate: " + rate);
+    }
+
+    @Test
+    void constructor_InvalidArguments_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.user.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NegativeCache, on a manual clock.
+ */
+class NegativeCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void contains_WithinTtl_TrueThenExpires() {
+        // Arrange
+        NegativeCache cache = new NegativeCache(10000, 100, nanos::get);
+        cache.add("unknown");
+
+        // Act & Assert
+        advanceMillis(9999);
+        assertTrue(cache.contains("unknown"));
+        advanceMillis(1);
+        assertFalse(cache.contains("unknown"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void remove_KeyCreated_NoLongerContained() {
+        // Arrange
+        NegativeCache cache = new NegativeCache(10000, 100, nanos::get);
+        cache.add("alice");
+
+        // Act
+        cache.remove("alice");
+
+        // Assert
+        assertFalse(cache.contains("alice"));
+    }
+
+    @Test
+    void add_FloodOfUnknownKeys_SizeStaysBounded() {
+        // Arrange
+        NegativeCache cache = new NegativeCache(10000, 100, nanos::get);
+
+        // Act
+        for (int i = 0; i < 10000; i++) {
+            cache.add("unknown-" + i);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 100, "entries: " + cache.size());
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
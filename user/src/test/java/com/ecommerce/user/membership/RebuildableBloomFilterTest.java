@@ -0,0 +1,49 @@
+package com.ecommerce.user.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RebuildableBloomFilter.
+ */
+class RebuildableBloomFilterTest {
+
+    private final RebuildableBloomFilter filter = new RebuildableBloomFilter(1000, 0.001);
+
+    @Test
+    void mightContain_BeforeFirstBuild_EverythingMightBeContained() {
+        assertTrue(filter.mightContain(BloomFilter.hash("anything")));
+    }
+
+    @Test
+    void rebuild_KeyRemovedFromSource_Dropped() {
+        // Arrange
+        filter.rebuild(sink -> List.of("alice", "bob").forEach(key -> sink.accept(BloomFilter.hash(key))));
+        assertTrue(filter.mightContain(BloomFilter.hash("bob")));
+
+        // Act
+        filter.rebuild(sink -> sink.accept(BloomFilter.hash("alice")));
+
+        // Assert
+        assertTrue(filter.mightContain(BloomFilter.hash("alice")));
+        assertFalse(filter.mightContain(BloomFilter.hash("bob")));
+    }
+
+    @Test
+    void put_WhileRebuilding_KeptInNewFilter() {
+        // Arrange
+        filter.rebuild(sink -> sink.accept(BloomFilter.hash("alice")));
+
+        // Act: added after the source was read, before the swap
+        filter.rebuild(sink -> {
+            sink.accept(BloomFilter.hash("alice"));
+            filter.put(BloomFilter.hash("carol"));
+        });
+
+        // Assert
+        assertTrue(filter.mightContain(BloomFilter.hash("carol")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.user.membership;
+
+import com.ecommerce.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UsernameFilter.
+ */
+@ExtendWith(MockitoExtension.class)
+class UsernameFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UsernameFilter usernameFilter;
+
+    @BeforeEach
+    void setUp() {
+        usernameFilter = new UsernameFilter(userRepository, 1000, 0.001);
+    }
+
+    @Test
+    void mightExist_BeforeLoad_AlwaysTrue() {
+        assertTrue(usernameFilter.mightExist("alice"));
+    }
+
+    @Test
+    void mightExist_AfterLoad_OnlyRegisteredUsernames() {
+        // Arrange
+        when(userRepository.findAllUsernames()).thenReturn(List.of("alice", "bob"));
+
+        // Act
+        usernameFilter.load();
+
+        // Assert
+        assertTrue(usernameFilter.mightExist("alice"));
+        assertTrue(usernameFilter.mightExist("bob"));
+        assertFalse(usernameFilter.mightExist("carol"));
+    }
+
+    @Test
+    void add_AfterLoad_Registered() {
+        // Arrange
+        when(userRepository.findAllUsernames()).thenReturn(List.of("alice"));
+        usernameFilter.load();
+
+        // Act
+        usernameFilter.add("carol");
+
+        // Assert
+        assertTrue(usernameFilter.mightExist("carol"));
+    }
+}
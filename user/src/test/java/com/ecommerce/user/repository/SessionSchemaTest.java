@@ -0,0 +1,59 @@
+package com.ecommerce.user.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the migrated schema serves the session and user lookups from
+ * indexes, by reading H2's query plans in MySQL compatibility mode.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SessionSchemaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByTokenHash_UsesPrimaryKey() {
+        // Act
+        String plan = explain("select * from sessions where token_hash = 'abc'");
+
+        // Assert
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+    }
+
+    @Test
+    void expirySweeps_UseExpiryIndex() {
+        // Act
+        String expired = explain("select token_hash from sessions where expired_at <= 1000 limit 500");
+        String live = explain("select * from sessions where expired_at > 1000");
+
+        // Assert
+        assertTrue(expired.contains("idx_sessions_expired_at"), expired);
+        assertTrue(live.contains("idx_sessions_expired_at"), live);
+    }
+
+    @Test
+    void findByUsername_UsesPrimaryKey() {
+        // Act
+        String plan = explain("select * from users where username = 'alice'");
+
+        // Assert
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.entity.User;
+import com.ecommerce.user.model.RegisterUserRequest;
+import com.ecommerce.user.repository.UserRepository;
+import com.ecommerce.user.repository.UserSessionRepository;
+import com.ecommerce.user.security.BCrypt;
+import com.ecommerce.user.session.SessionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Integration tests for duplicate registrations in UserService.
+ */
+@SpringBootTest
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository sessionRepository;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore.flush();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void register_SameUsernameConcurrently_OneSucceeds() throws Exception {
+        // Arrange
+        int registrations = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(registrations);
+        List<Future<?>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < registrations; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    userService.register(request("racer"));
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            int succeeded = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException ex) {
+                    assertDuplicate(ex.getCause());
+                }
+            }
+            assertEquals(1, succeeded);
+            assertEquals(1, userRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void register_RegisteredRightAfterTheExistenceCheck_Rejected() {
+        // Arrange: the other registration commits, and is cached, between the check and the insert
+        userRepository.save(new User("racer", BCrypt.hash("secret"), "Other"));
+        userRepository.findById("racer");
+        doReturn(false).when(userRepository).existsById(anyString());
+
+        // Act
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> userService.register(request("racer")));
+
+        // Assert
+        assertDuplicate(ex);
+        assertEquals("Other", userRepository.findById("racer").orElseThrow().getName());
+    }
+
+    private static void assertDuplicate(Throwable failure) {
+        ResponseStatusException ex = assertInstanceOf(ResponseStatusException.class, failure);
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("Username already exists", ex.getReason());
+    }
+
+    private static RegisterUserRequest request(String username) {
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setUsername(username);
+        request.setPassword("secret");
+        request.setName("Test");
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.user.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SessionIndex.
+ */
+class SessionIndexTest {
+
+    @Test
+    void putGetRemove_RoundTrip() {
+        // Arrange
+        SessionIndex index = new SessionIndex(16);
+        Session session = session("a");
+
+        // Act
+        Session previous = index.put(session);
+
+        // Assert
+        assertNull(previous);
+        assertSame(session, index.put(session));
+        assertSame(session, index.get(session.tokenHash()));
+        assertEquals(1, index.size());
+        assertSame(session, index.remove(session.tokenHash()));
+        assertNull(index.get(session.tokenHash()));
+        assertNull(index.remove(session.tokenHash()));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void get_SameKeyDifferentHash_ReturnsNull() {
+        // Arrange
+        SessionIndex index = new SessionIndex(16);
+        Session session = new Session("00000000000000aa" + "1".repeat(48), "alice", Long.MAX_VALUE);
+        index.put(session);
+
+        // Act & Assert
+        assertNull(index.get("00000000000000aa" + "2".repeat(48)));
+        assertNull(index.remove("00000000000000aa" + "2".repeat(48)));
+        assertSame(session, index.get(session.tokenHash()));
+    }
+
+    @Test
+    void put_BeyondCapacity_ResizesAndKeepsEverySession() {
+        // Arrange
+        SessionIndex index = new SessionIndex(1);
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            sessions.add(session("s" + i));
+        }
+
+        // Act
+        sessions.forEach(index::put);
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove(sessions.get(i).tokenHash());
+        }
+
+        // Assert
+        assertEquals(500, index.size());
+        for (int i = 0; i < 1000; i++) {
+            Session found = index.get(sessions.get(i).tokenHash());
+            if (i % 2 == 0) {
+                assertNull(found);
+            } else {
+                assertSame(sessions.get(i), found);
+            }
+        }
+        List<Session> visited = new ArrayList<>();
+        index.forEach(visited::add);
+        assertEquals(500, visited.size());
+    }
+
+    @Test
+    void get_ConcurrentPutsAndResizes_AlwaysFindsExistingSession() throws Exception {
+        // Arrange
+        SessionIndex index = new SessionIndex(1);
+        Session known = session("known");
+        index.put(known);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            // Act
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 50_000; i++) {
+                        index.put(session("w" + i));
+                        if (i % 3 == 0) {
+                            index.remove(SessionTokens.hash("w" + (i / 2)));
+                        }
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            });
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(executor.submit(() -> {
+                    int misses = 0;
+                    while (writing.get()) {
+                        if (index.get(known.tokenHash()) != known) {
+                            misses++;
+                        }
+                        index.get(SessionTokens.hash("absent"));
+                    }
+                    return misses;
+                }));
+            }
+
+            // Assert
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                assertEquals(0, reader.get(30, TimeUnit.SECONDS));
+            }
+            assertSame(known, index.get(known.tokenHash()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Session session(String token) {
+        return new Session(SessionTokens.hash(token), "alice", Long.MAX_VALUE);
+    }
+}
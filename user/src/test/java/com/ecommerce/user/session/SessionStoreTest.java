@@ -0,0 +1,142 @@
+package com.ecommerce.user.session;
+
+import com.ecommerce.user.cache.EmbeddedInvalidationBus;
+import com.ecommerce.user.cache.EmbeddedRemoteCache;
+import com.ecommerce.user.cache.InvalidationBus;
+import com.ecommerce.user.cache.RemoteCache;
+import com.ecommerce.user.cache.TwoLevelCache;
+import com.ecommerce.user.entity.UserSession;
+import com.ecommerce.user.repository.UserSessionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SessionStore with two instances sharing a session cache.
+ */
+class SessionStoreTest {
+
+    private final RemoteCache remoteCache = new EmbeddedRemoteCache(1000);
+    private final InvalidationBus bus = new EmbeddedInvalidationBus();
+
+    private UserSessionRepository repository;
+    private SessionStore issuer;
+    private SessionStore other;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserSessionRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        issuer = store(false);
+        other = store(true);
+        // Built at startup; until then the filter lets every token through
+        other.rebuildTokenFilter();
+    }
+
+    @Test
+    void find_SessionOpenedByAnotherInstance_FoundInSessionCacheDespiteTokenFilter() {
+        // Arrange
+        issuer.open("token", "alice", System.currentTimeMillis() + 60000);
+
+        // Act
+        Optional<Session> session = other.find("token");
+
+        // Assert
+        assertEquals("alice", session.orElseThrow().username());
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void find_UnknownToken_RejectedByTokenFilterWithoutDatabase() {
+        // Act & Assert
+        assertTrue(other.find("unknown").isEmpty());
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void close_OnIssuer_DropsSessionOnOtherInstance() {
+        // Arrange
+        issuer.open("token", "alice", System.currentTimeMillis() + 60000);
+        assertTrue(other.find("token").isPresent());
+
+        // Act
+        issuer.close("token");
+
+        // Assert
+        assertTrue(other.find("token").isEmpty());
+        assertTrue(issuer.find("token").isEmpty());
+    }
+
+    @Test
+    void flush_SessionClosedElsewhereBeforeIssuerFlushed_RowNotWrittenBack() {
+        // Arrange
+        Map<String, UserSession> table = new HashMap<>();
+        doAnswer(invocation -> {
+            Iterable<UserSession> sessions = invocation.getArgument(0);
+            sessions.forEach(session -> table.put(session.getTokenHash(), session));
+            return sessions;
+        }).when(repository).saveAll(anyIterable());
+        doAnswer(invocation -> {
+            Iterable<String> tokenHashes = invocation.getArgument(0);
+            tokenHashes.forEach(table::remove);
+            return null;
+        }).when(repository).deleteAllByIdInBatch(anyIterable());
+        issuer.open("token", "alice", System.currentTimeMillis() + 60000);
+
+        // Act: the other instance's delete is persisted before the issuer's insert
+        other.close("token");
+        other.flush();
+        issuer.flush();
+
+        // Assert
+        assertTrue(table.isEmpty());
+        assertTrue(issuer.find("token").isEmpty());
+    }
+
+    @Test
+    void track_SessionAlreadyTracked_ScheduledOnce() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SessionStore store = store(false, registry);
+        Session session = issuer.open("token", "alice", System.currentTimeMillis() + 60000);
+        assertTrue(store.find("token").isPresent());
+        when(repository.findAllByExpiredAtGreaterThan(anyLong()))
+                .thenReturn(List.of(new UserSession(session.tokenHash(), "alice", session.expiredAt())));
+
+        // Act
+        store.load();
+
+        // Assert
+        assertEquals(1.0, registry.get("user.session.scheduled.expiries").gauge().value());
+    }
+
+    private SessionStore store(boolean tokenFilterEnabled) {
+        return store(tokenFilterEnabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SessionStore store(boolean tokenFilterEnabled, MeterRegistry registry) {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable()).thenReturn(registry);
+        TwoLevelCache<Session> sessionCache = new TwoLevelCache<>("session", Session.class, new ObjectMapper(),
+                remoteCache, bus, 0, Duration.ofSeconds(5), Duration.ofMinutes(1), meterRegistry);
+        return new SessionStore(repository, mock(PlatformTransactionManager.class), 500, 1000, 1000,
+                tokenFilterEnabled, 0.01, 10000, 1000, sessionCache, meterRegistry);
+    }
+}
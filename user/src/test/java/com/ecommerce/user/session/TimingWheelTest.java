@@ -0,0 +1,88 @@
+package com.ecommerce.user.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TimingWheel, with a 1 ms tick so ticks and milliseconds coincide.
+ */
+class TimingWheelTest {
+
+    // Ticks covered by one bucket of levels 1, 2 and 3, and by the whole wheel
+    private static final long LEVEL_1 = 64;
+    private static final long LEVEL_2 = 64 * 64;
+    private static final long LEVEL_3 = 64 * 64 * 64;
+    private static final long WHEEL = 64L * 64 * 64 * 64;
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+
+    @Test
+    void advance_FiresOnlyAfterDeadline() {
+        // Arrange
+        wheel.schedule("a", 10);
+
+        // Act & Assert
+        assertEquals(List.of(), wheel.advance(10));
+        assertEquals(List.of("a"), wheel.advance(11));
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_InCurrentTickOrPast_FiresOnNextTick() {
+        // Arrange
+        wheel.advance(500);
+
+        // Act
+        wheel.schedule("now", 500);
+        wheel.schedule("past", 100);
+
+        // Assert
+        assertEquals(2, wheel.size());
+        assertEquals(List.of("now", "past"), wheel.advance(501).stream().sorted().toList());
+    }
+
+    @Test
+    void advance_CascadesThroughEveryLevel() {
+        // Arrange
+        long[] deadlines = {LEVEL_1 + 7, LEVEL_2 + 3 * LEVEL_1 + 5, LEVEL_3 + 2 * LEVEL_2 + 11, 3 * LEVEL_3 + 17};
+        for (long deadline : deadlines) {
+            wheel.schedule("d" + deadline, deadline);
+        }
+
+        // Act & Assert
+        for (long deadline : deadlines) {
+            // Jumping to the tick before crosses the cascades without firing early
+            assertEquals(List.of(), wheel.advance(deadline));
+            assertEquals(List.of("d" + deadline), wheel.advance(deadline + 1));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_DeadlineBeyondTopLevel_ParkedUntilDue() {
+        // Arrange
+        long deadline = 2 * WHEEL + 123;
+        wheel.schedule("far", deadline);
+        wheel.schedule("near", 5);
+
+        // Act & Assert
+        assertEquals(List.of("near"), wheel.advance(WHEEL + 1));
+        assertEquals(List.of(), wheel.advance(deadline));
+        assertEquals(List.of("far"), wheel.advance(deadline + 1));
+    }
+
+    @Test
+    void advance_WithCoarseTick_RoundsDeadlineUp() {
+        // Arrange
+        TimingWheel<String> coarse = new TimingWheel<>(1000, 0);
+        coarse.schedule("a", 1500);
+
+        // Act & Assert
+        assertEquals(List.of(), coarse.advance(1999));
+        assertEquals(List.of("a"), coarse.advance(2000));
+    }
+}